@@ -9,6 +9,8 @@ package com.velocitypowered.api.proxy.server;
 
 import com.google.common.base.Preconditions;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
 import java.util.Objects;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -18,8 +20,12 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  */
 public final class ServerInfo implements Comparable<ServerInfo> {
 
+  private static final InetSocketAddress UNIX_SOCKET_PLACEHOLDER =
+      InetSocketAddress.createUnresolved("localhost", 25565);
+
   private final String name;
   private final InetSocketAddress address;
+  private final SocketAddress socketAddress;
 
   /**
    * Creates a new ServerInfo object.
@@ -30,21 +36,53 @@ public final class ServerInfo implements Comparable<ServerInfo> {
   public ServerInfo(String name, InetSocketAddress address) {
     this.name = Preconditions.checkNotNull(name, "name");
     this.address = Preconditions.checkNotNull(address, "address");
+    this.socketAddress = address;
+  }
+
+  /**
+   * Creates a new ServerInfo object for a server listening on a unix domain socket, which must be
+   * on the same machine as the proxy. Connecting to such servers requires the epoll or kqueue
+   * transport.
+   *
+   * @param name the name for the server
+   * @param address the unix domain socket the server listens on
+   */
+  public ServerInfo(String name, UnixDomainSocketAddress address) {
+    this.name = Preconditions.checkNotNull(name, "name");
+    this.socketAddress = Preconditions.checkNotNull(address, "address");
+    this.address = UNIX_SOCKET_PLACEHOLDER;
   }
 
   public final String getName() {
     return name;
   }
 
+  /**
+   * Returns the internet address of the server. For servers listening on a unix domain socket, this
+   * is an unresolved {@code localhost:25565} placeholder; use {@link #getSocketAddress()} to get
+   * the socket instead.
+   *
+   * @return the internet address of the server
+   */
   public final InetSocketAddress getAddress() {
     return address;
   }
 
+  /**
+   * Returns the address the proxy connects to in order to reach the server: either the same
+   * {@link InetSocketAddress} as {@link #getAddress()}, or a {@link UnixDomainSocketAddress}.
+   *
+   * @return the address to connect to
+   */
+  public final SocketAddress getSocketAddress() {
+    return socketAddress;
+  }
+
   @Override
   public String toString() {
     return "ServerInfo{"
         + "name='" + name + '\''
-        + ", address=" + address
+        + ", address=" + socketAddress
         + '}';
   }
 
@@ -58,12 +96,12 @@ public final class ServerInfo implements Comparable<ServerInfo> {
     }
     ServerInfo that = (ServerInfo) o;
     return Objects.equals(name, that.name)
-        && Objects.equals(address, that.address);
+        && Objects.equals(socketAddress, that.socketAddress);
   }
 
   @Override
   public final int hashCode() {
-    return Objects.hash(name, address);
+    return Objects.hash(name, socketAddress);
   }
 
   @Override
@@ -7,6 +7,7 @@
 
 package com.velocitypowered.api.scheduler;
 
+import com.velocitypowered.api.proxy.Player;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.concurrent.TimeUnit;
@@ -104,6 +105,22 @@ public interface Scheduler {
      */
     TaskBuilder clearRepeat();
 
+    /**
+     * Binds this task to the specified player. The task will run on the network thread handling the
+     * player's connection rather than on the plugin's thread pool, and is cancelled automatically
+     * once the player disconnects. This suits tasks that frequently update a single player, as
+     * packets they send to the player do not need to be handed over to another thread.
+     *
+     * <p>Bound tasks must never block, since they hold up the connections of every player
+     * sharing the same network thread while they run. Cancelling a bound task does not interrupt
+     * it.
+     *
+     * @param player the player to bind the task to
+     * @return this builder, for chaining
+     * @since 3.4.0
+     */
+    TaskBuilder bindTo(@NotNull Player player);
+
     /**
      * Schedules this task for execution.
      *
@@ -28,6 +28,12 @@ import javax.crypto.spec.IvParameterSpec;
 
 /**
  * Implements AES-CFB8 encryption/decryption using {@link Cipher}.
+ *
+ * <p>Encryption in CFB8 mode is inherently sequential, as every byte feeds back into the block
+ * encrypted for the next one, so it is left to the JDK's own CFB8 implementation. Decryption is
+ * not: the block encrypted for every byte consists of the 16 bytes of ciphertext preceding it, all
+ * of which are known up front. Those blocks are therefore encrypted in batches using AES in ECB
+ * mode, which lets the JIT's AES intrinsics process several blocks at once.
  */
 public class JavaVelocityCipher implements VelocityCipher {
 
@@ -43,13 +49,36 @@ public class JavaVelocityCipher implements VelocityCipher {
     }
   };
 
+  private static final int BLOCK_SIZE = 16;
+  // The number of bytes decrypted per batch, trading the memory held by every connection for
+  // fewer calls into the cipher.
+  private static final int BATCH_SIZE = 256;
+
   private final Cipher cipher;
+  private final boolean encrypt;
+  private final byte[] window;
+  private final byte[] blocks;
+  private final byte[] keystream;
   private boolean disposed = false;
 
   private JavaVelocityCipher(boolean encrypt, SecretKey key) throws GeneralSecurityException {
-    this.cipher = Cipher.getInstance("AES/CFB8/NoPadding");
-    this.cipher.init(encrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, key,
-        new IvParameterSpec(key.getEncoded()));
+    this.encrypt = encrypt;
+    if (encrypt) {
+      this.cipher = Cipher.getInstance("AES/CFB8/NoPadding");
+      this.cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(key.getEncoded()));
+      this.window = null;
+      this.blocks = null;
+      this.keystream = null;
+    } else {
+      this.cipher = Cipher.getInstance("AES/ECB/NoPadding");
+      this.cipher.init(Cipher.ENCRYPT_MODE, key);
+      // The first 16 bytes of the window always hold the ciphertext preceding the current batch,
+      // starting out with the IV, which Minecraft sets to the key.
+      this.window = new byte[BLOCK_SIZE + BATCH_SIZE];
+      System.arraycopy(key.getEncoded(), 0, this.window, 0, BLOCK_SIZE);
+      this.blocks = new byte[BATCH_SIZE * BLOCK_SIZE];
+      this.keystream = new byte[BATCH_SIZE * BLOCK_SIZE];
+    }
   }
 
   @Override
@@ -61,7 +90,11 @@ public class JavaVelocityCipher implements VelocityCipher {
     int baseOffset = source.arrayOffset() + source.readerIndex();
 
     try {
-      cipher.update(source.array(), baseOffset, inBytes, source.array(), baseOffset);
+      if (encrypt) {
+        cipher.update(source.array(), baseOffset, inBytes, source.array(), baseOffset);
+      } else {
+        decrypt(source.array(), baseOffset, inBytes);
+      }
     } catch (ShortBufferException ex) {
       /* This _really_ shouldn't happen - AES CFB8 will work in place.
          If you run into this, that means that for whatever reason the Java Runtime has determined
@@ -72,6 +105,24 @@ public class JavaVelocityCipher implements VelocityCipher {
     }
   }
 
+  private void decrypt(byte[] data, int offset, int length) throws ShortBufferException {
+    while (length > 0) {
+      int batch = Math.min(length, BATCH_SIZE);
+      System.arraycopy(data, offset, window, BLOCK_SIZE, batch);
+      for (int i = 0; i < batch; i++) {
+        System.arraycopy(window, i, blocks, i * BLOCK_SIZE, BLOCK_SIZE);
+      }
+      cipher.update(blocks, 0, batch * BLOCK_SIZE, keystream, 0);
+      for (int i = 0; i < batch; i++) {
+        data[offset + i] ^= keystream[i * BLOCK_SIZE];
+      }
+      // Keep the last 16 bytes of ciphertext around for the next batch.
+      System.arraycopy(window, batch, window, 0, BLOCK_SIZE);
+      offset += batch;
+      length -= batch;
+    }
+  }
+
   @Override
   public void close() {
     disposed = true;
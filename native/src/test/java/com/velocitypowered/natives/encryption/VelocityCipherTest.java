@@ -17,6 +17,7 @@
 
 package com.velocitypowered.natives.encryption;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.condition.OS.LINUX;
@@ -28,6 +29,8 @@ import io.netty.buffer.Unpooled;
 import java.security.GeneralSecurityException;
 import java.util.Random;
 import java.util.function.Supplier;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -62,6 +65,30 @@ class VelocityCipherTest {
     check(JavaVelocityCipher.FACTORY, Unpooled::buffer);
   }
 
+  @Test
+  void javaDecryptionMatchesJdkCfb8() throws GeneralSecurityException {
+    SecretKeySpec key = new SecretKeySpec(AES_KEY, "AES");
+    Cipher jdk = Cipher.getInstance("AES/CFB8/NoPadding");
+    jdk.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(AES_KEY));
+    byte[] encrypted = jdk.doFinal(TEST_DATA);
+
+    // Decrypt in uneven pieces to cover batches spanning multiple calls.
+    VelocityCipher decrypt = JavaVelocityCipher.FACTORY.forDecryption(key);
+    ByteBuf buf = Unpooled.wrappedBuffer(encrypted);
+    Random random = new Random(2);
+    try {
+      while (buf.isReadable()) {
+        int length = Math.min(buf.readableBytes(), 1 + random.nextInt(1000));
+        decrypt.process(buf.slice(buf.readerIndex(), length));
+        buf.skipBytes(length);
+      }
+      assertArrayEquals(TEST_DATA, encrypted);
+    } finally {
+      buf.release();
+      decrypt.close();
+    }
+  }
+
   private void check(VelocityCipherFactory factory, Supplier<ByteBuf> bufSupplier)
       throws GeneralSecurityException {
     // Generate a random 16-byte key.
@@ -0,0 +1,15 @@
+plugins {
+    alias(libs.plugins.jmh)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+}
+
+dependencies {
+    jmh(project(":velocity-api"))
+    jmh(project(":velocity-native"))
+    jmh(project(":velocity-proxy"))
+    jmh(libs.netty.codec)
+    jmh(libs.netty.handler)
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.natives.Native;
+import com.velocitypowered.natives.util.BufferPreference;
+import com.velocitypowered.natives.util.MoreByteBufUtils;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.packet.KeepAlivePacket;
+import com.velocitypowered.proxy.protocol.packet.PluginMessagePacket;
+import com.velocitypowered.proxy.protocol.packet.chat.ChatType;
+import com.velocitypowered.proxy.protocol.packet.chat.ComponentHolder;
+import com.velocitypowered.proxy.protocol.packet.chat.SystemChatPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Generates the packets fed through the codec benchmarks.
+ */
+final class BenchmarkPayloads {
+
+  /**
+   * The number of packets processed by each benchmark invocation.
+   */
+  static final int PACKETS_PER_BATCH = 100;
+
+  // An ID no clientbound PLAY packet uses, so the proxy treats it like chunk data it forwards.
+  private static final int UNKNOWN_PACKET_ID = 0x7F;
+
+  private BenchmarkPayloads() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Creates a batch of raw packets, each consisting of a packet ID and its data, in the buffer
+   * type preferred by {@code nativeStuff}.
+   */
+  static List<ByteBuf> packetBodies(PacketMix mix, Native nativeStuff) {
+    Random random = new Random(1);
+    List<ByteBuf> bodies = new ArrayList<>(PACKETS_PER_BATCH);
+    for (int i = 0; i < PACKETS_PER_BATCH; i++) {
+      int size = mix.sizeOf(i);
+      ByteBuf body = MoreByteBufUtils.preferredBuffer(ByteBufAllocator.DEFAULT, nativeStuff, size);
+      ProtocolUtils.writeVarInt(body, UNKNOWN_PACKET_ID);
+      body.writeBytes(chunkLikeData(random, size - body.readableBytes()));
+      bodies.add(body);
+    }
+    return bodies;
+  }
+
+  /**
+   * Creates a single buffer containing a batch of length-prefixed packets.
+   */
+  static ByteBuf frames(PacketMix mix) {
+    ByteBuf frames = Unpooled.directBuffer();
+    for (ByteBuf body : packetBodies(mix, () -> BufferPreference.DIRECT_PREFERRED)) {
+      ProtocolUtils.writeVarInt(frames, body.readableBytes());
+      frames.writeBytes(body);
+      body.release();
+    }
+    return frames;
+  }
+
+  /**
+   * Creates a batch of packets the proxy encodes itself: keep-alives, system chat messages and
+   * large plugin messages.
+   */
+  static List<MinecraftPacket> packets(PacketMix mix, ProtocolVersion version) {
+    Random random = new Random(1);
+    List<MinecraftPacket> packets = new ArrayList<>(PACKETS_PER_BATCH);
+    for (int i = 0; i < PACKETS_PER_BATCH; i++) {
+      int size = mix.sizeOf(i);
+      if (size <= PacketMix.KEEP_ALIVE_SIZE) {
+        KeepAlivePacket keepAlive = new KeepAlivePacket();
+        keepAlive.setRandomId(random.nextLong());
+        packets.add(keepAlive);
+      } else if (size <= PacketMix.CHAT_SIZE) {
+        Component message = Component.text("Player" + i, NamedTextColor.YELLOW)
+            .append(Component.text(" joined the game. Welcome to the network!"));
+        packets.add(new SystemChatPacket(new ComponentHolder(version, message), ChatType.SYSTEM));
+      } else {
+        packets.add(new PluginMessagePacket("velocity:benchmark",
+            Unpooled.wrappedBuffer(chunkLikeData(random, size))));
+      }
+    }
+    return packets;
+  }
+
+  /**
+   * Reads and releases every inbound message on the {@code channel}.
+   */
+  static void drainInbound(EmbeddedChannel channel, Blackhole blackhole) {
+    Object msg;
+    while ((msg = channel.readInbound()) != null) {
+      blackhole.consume(msg);
+      ReferenceCountUtil.release(msg);
+    }
+  }
+
+  /**
+   * Reads and releases every outbound message on the {@code channel}.
+   */
+  static void drainOutbound(EmbeddedChannel channel, Blackhole blackhole) {
+    Object msg;
+    while ((msg = channel.readOutbound()) != null) {
+      blackhole.consume(msg);
+      ReferenceCountUtil.release(msg);
+    }
+  }
+
+  // Chunk sections are dominated by small palette indices and runs of air, so mostly-zero data
+  // with sparse noise compresses roughly as well as the real thing.
+  private static byte[] chunkLikeData(Random random, int size) {
+    byte[] data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      if (random.nextInt(8) == 0) {
+        data[i] = (byte) random.nextInt(256);
+      }
+    }
+    return data;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.velocitypowered.natives.encryption.JavaVelocityCipher;
+import com.velocitypowered.natives.encryption.VelocityCipher;
+import com.velocitypowered.natives.encryption.VelocityCipherFactory;
+import com.velocitypowered.natives.util.Natives;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how many packets per second {@link MinecraftCipherEncoder} and
+ * {@link MinecraftCipherDecoder} can process, using either the Java or the native
+ * {@link VelocityCipher}.
+ *
+ * <p>On platforms without a native cipher, {@code native} falls back to the Java
+ * implementation, exactly like the proxy does. Packets are encrypted in place, so the same
+ * buffers are simply processed over and over again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MinecraftCipherBenchmark {
+
+  @Param({"KEEP_ALIVE", "CHAT", "CHUNK", "MIXED"})
+  public PacketMix mix;
+
+  @Param({"java", "native"})
+  public String implementation;
+
+  private EmbeddedChannel encoderChannel;
+  private EmbeddedChannel decoderChannel;
+  private List<ByteBuf> bodies;
+
+  /**
+   * Sets up the channels and the packets to process.
+   *
+   * @throws GeneralSecurityException if the ciphers could not be created
+   */
+  @Setup
+  public void setup() throws GeneralSecurityException {
+    VelocityCipherFactory factory = implementation.equals("java")
+        ? JavaVelocityCipher.FACTORY : Natives.cipher.get();
+    byte[] secret = new byte[16];
+    new Random(1).nextBytes(secret);
+    SecretKey key = new SecretKeySpec(secret, "AES");
+
+    VelocityCipher encryptionCipher = factory.forEncryption(key);
+    encoderChannel = new EmbeddedChannel(new MinecraftCipherEncoder(encryptionCipher));
+    decoderChannel = new EmbeddedChannel(new MinecraftCipherDecoder(factory.forDecryption(key)));
+    bodies = BenchmarkPayloads.packetBodies(mix, encryptionCipher);
+  }
+
+  /**
+   * Releases the resources used by the benchmark.
+   */
+  @TearDown
+  public void tearDown() {
+    encoderChannel.finishAndReleaseAll();
+    decoderChannel.finishAndReleaseAll();
+    bodies.forEach(ByteBuf::release);
+  }
+
+  /**
+   * Encrypts a batch of packets.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BenchmarkPayloads.PACKETS_PER_BATCH)
+  public void encrypt(Blackhole blackhole) {
+    for (ByteBuf body : bodies) {
+      encoderChannel.write(body.retainedDuplicate());
+    }
+    encoderChannel.flushOutbound();
+    BenchmarkPayloads.drainOutbound(encoderChannel, blackhole);
+  }
+
+  /**
+   * Decrypts a batch of packets.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BenchmarkPayloads.PACKETS_PER_BATCH)
+  public void decrypt(Blackhole blackhole) {
+    for (ByteBuf body : bodies) {
+      decoderChannel.writeInbound(body.retainedDuplicate());
+    }
+    BenchmarkPayloads.drainInbound(decoderChannel, blackhole);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how many clientbound PLAY packets per second {@link MinecraftEncoder} and
+ * {@link MinecraftDecoder} can process.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MinecraftCodecBenchmark {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.MAXIMUM_VERSION;
+
+  @Param({"KEEP_ALIVE", "CHAT", "CHUNK", "MIXED"})
+  public PacketMix mix;
+
+  private EmbeddedChannel encoderChannel;
+  private EmbeddedChannel decoderChannel;
+  private List<MinecraftPacket> packets;
+  private List<ByteBuf> encoded;
+
+  /**
+   * Sets up the channels, the packets to encode and their encoded form to decode.
+   */
+  @Setup
+  public void setup() {
+    MinecraftEncoder encoder = new MinecraftEncoder(ProtocolUtils.Direction.CLIENTBOUND);
+    encoder.setState(StateRegistry.PLAY);
+    encoder.setProtocolVersion(VERSION);
+    encoderChannel = new EmbeddedChannel(encoder);
+
+    MinecraftDecoder decoder = new MinecraftDecoder(ProtocolUtils.Direction.CLIENTBOUND);
+    decoder.setState(StateRegistry.PLAY);
+    decoder.setProtocolVersion(VERSION);
+    decoderChannel = new EmbeddedChannel(decoder);
+
+    packets = BenchmarkPayloads.packets(mix, VERSION);
+    encoded = new ArrayList<>(packets.size());
+    for (MinecraftPacket packet : packets) {
+      encoderChannel.writeOutbound(ReferenceCountUtil.retain(packet));
+      encoded.add(encoderChannel.readOutbound());
+    }
+  }
+
+  /**
+   * Releases the resources used by the benchmark.
+   */
+  @TearDown
+  public void tearDown() {
+    encoderChannel.finishAndReleaseAll();
+    decoderChannel.finishAndReleaseAll();
+    packets.forEach(ReferenceCountUtil::release);
+    encoded.forEach(ByteBuf::release);
+  }
+
+  /**
+   * Encodes a batch of packets.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BenchmarkPayloads.PACKETS_PER_BATCH)
+  public void encode(Blackhole blackhole) {
+    for (MinecraftPacket packet : packets) {
+      encoderChannel.write(ReferenceCountUtil.retain(packet));
+    }
+    encoderChannel.flushOutbound();
+    BenchmarkPayloads.drainOutbound(encoderChannel, blackhole);
+  }
+
+  /**
+   * Decodes a batch of packets. Packets the proxy does not decode, such as system chat, are
+   * forwarded as-is.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BenchmarkPayloads.PACKETS_PER_BATCH)
+  public void decode(Blackhole blackhole) {
+    for (ByteBuf buf : encoded) {
+      decoderChannel.writeInbound(buf.retainedDuplicate());
+    }
+    BenchmarkPayloads.drainInbound(decoderChannel, blackhole);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.velocitypowered.natives.compression.JavaVelocityCompressor;
+import com.velocitypowered.natives.compression.VelocityCompressor;
+import com.velocitypowered.natives.compression.VelocityCompressorFactory;
+import com.velocitypowered.natives.util.Natives;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how many packets per second {@link MinecraftCompressorAndLengthEncoder} and
+ * {@link MinecraftCompressDecoder} can process, using either the Java or the native
+ * {@link VelocityCompressor}.
+ *
+ * <p>On platforms without a native compressor, {@code native} falls back to the Java
+ * implementation, exactly like the proxy does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MinecraftCompressionBenchmark {
+
+  private static final int THRESHOLD = 256;
+  private static final int LEVEL = -1;
+
+  @Param({"KEEP_ALIVE", "CHAT", "CHUNK", "MIXED"})
+  public PacketMix mix;
+
+  @Param({"java", "native"})
+  public String implementation;
+
+  private EmbeddedChannel encoderChannel;
+  private EmbeddedChannel decoderChannel;
+  private List<ByteBuf> bodies;
+  private ByteBuf compressedFrames;
+
+  /**
+   * Sets up the channels, the packets to compress and their compressed form to decompress.
+   */
+  @Setup
+  public void setup() {
+    VelocityCompressorFactory factory = implementation.equals("java")
+        ? JavaVelocityCompressor.FACTORY : Natives.compress.get();
+    VelocityCompressor encodeCompressor = factory.create(LEVEL);
+    encoderChannel = new EmbeddedChannel(
+        new MinecraftCompressorAndLengthEncoder(THRESHOLD, encodeCompressor));
+    decoderChannel = new EmbeddedChannel(new MinecraftVarintFrameDecoder(),
+        new MinecraftCompressDecoder(THRESHOLD, factory.create(LEVEL)));
+
+    bodies = BenchmarkPayloads.packetBodies(mix, encodeCompressor);
+    compressedFrames = Unpooled.directBuffer();
+    for (ByteBuf body : bodies) {
+      encoderChannel.writeOutbound(body.retainedDuplicate());
+      ByteBuf frame = encoderChannel.readOutbound();
+      compressedFrames.writeBytes(frame);
+      frame.release();
+    }
+  }
+
+  /**
+   * Releases the resources used by the benchmark.
+   */
+  @TearDown
+  public void tearDown() {
+    encoderChannel.finishAndReleaseAll();
+    decoderChannel.finishAndReleaseAll();
+    bodies.forEach(ByteBuf::release);
+    compressedFrames.release();
+  }
+
+  /**
+   * Compresses and frames a batch of packets.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BenchmarkPayloads.PACKETS_PER_BATCH)
+  public void compress(Blackhole blackhole) {
+    for (ByteBuf body : bodies) {
+      encoderChannel.write(body.retainedDuplicate());
+    }
+    encoderChannel.flushOutbound();
+    BenchmarkPayloads.drainOutbound(encoderChannel, blackhole);
+  }
+
+  /**
+   * Frames and decompresses a batch of packets.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BenchmarkPayloads.PACKETS_PER_BATCH)
+  public void decompress(Blackhole blackhole) {
+    decoderChannel.writeInbound(compressedFrames.retainedDuplicate());
+    BenchmarkPayloads.drainInbound(decoderChannel, blackhole);
+  }
+}
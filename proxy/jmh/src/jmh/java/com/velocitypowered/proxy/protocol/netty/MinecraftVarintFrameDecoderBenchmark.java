@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how many packets per second {@link MinecraftVarintFrameDecoder} can frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MinecraftVarintFrameDecoderBenchmark {
+
+  @Param({"KEEP_ALIVE", "CHAT", "CHUNK", "MIXED"})
+  public PacketMix mix;
+
+  private EmbeddedChannel channel;
+  private ByteBuf frames;
+
+  /**
+   * Sets up the channel and the batch of frames to decode.
+   */
+  @Setup
+  public void setup() {
+    channel = new EmbeddedChannel(new MinecraftVarintFrameDecoder());
+    frames = BenchmarkPayloads.frames(mix);
+  }
+
+  /**
+   * Releases the resources used by the benchmark.
+   */
+  @TearDown
+  public void tearDown() {
+    channel.finishAndReleaseAll();
+    frames.release();
+  }
+
+  /**
+   * Frames a batch of packets.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BenchmarkPayloads.PACKETS_PER_BATCH)
+  public void decode(Blackhole blackhole) {
+    channel.writeInbound(frames.retainedDuplicate());
+    BenchmarkPayloads.drainInbound(channel, blackhole);
+  }
+}
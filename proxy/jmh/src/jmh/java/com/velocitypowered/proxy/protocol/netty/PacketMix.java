@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+/**
+ * Mixes of packet sizes a proxy typically sees.
+ */
+public enum PacketMix {
+  KEEP_ALIVE,
+  CHAT,
+  CHUNK,
+  /**
+   * Mostly small movement-sized packets, with some chat and the occasional chunk.
+   */
+  MIXED;
+
+  static final int KEEP_ALIVE_SIZE = 9;
+  static final int CHAT_SIZE = 256;
+  static final int CHUNK_SIZE = 32 * 1024;
+
+  int sizeOf(int index) {
+    return switch (this) {
+      case KEEP_ALIVE -> KEEP_ALIVE_SIZE;
+      case CHAT -> CHAT_SIZE;
+      case CHUNK -> CHUNK_SIZE;
+      case MIXED -> index % 20 == 0 ? CHUNK_SIZE : index % 4 == 0 ? CHAT_SIZE : 16;
+    };
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.scheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link TaskTimer} implementations of the {@link VelocityScheduler} while many
+ * repeating tasks, like per-player tab list or scoreboard refreshers, are scheduled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskTimerBenchmark {
+
+  private static final int TASKS_PER_INVOCATION = 1000;
+
+  @Param({"executor", "hashed-wheel"})
+  public String timerType;
+
+  @Param({"0", "50000"})
+  public int backgroundTasks;
+
+  private TaskTimer timer;
+  private TaskTimer.Handle[] handles;
+
+  /**
+   * Creates the timer and fills it with repeating background tasks.
+   */
+  @Setup(Level.Trial)
+  public void setup() {
+    timer = timerType.equals("executor") ? new ExecutorTaskTimer() : new HashedWheelTaskTimer();
+    for (int i = 0; i < backgroundTasks; i++) {
+      timer.schedule(() -> { }, 1000 + i % 1000, 1000);
+    }
+    handles = new TaskTimer.Handle[TASKS_PER_INVOCATION];
+  }
+
+  /**
+   * Stops the timer.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    timer.shutdown();
+  }
+
+  /**
+   * Schedules repeating tasks and cancels them again, like players joining and leaving.
+   */
+  @Benchmark
+  @OperationsPerInvocation(TASKS_PER_INVOCATION)
+  public void scheduleAndCancel() {
+    for (int i = 0; i < TASKS_PER_INVOCATION; i++) {
+      handles[i] = timer.schedule(() -> { }, 60_000, 1000);
+    }
+    for (TaskTimer.Handle handle : handles) {
+      handle.cancel();
+    }
+  }
+
+  /**
+   * Schedules tasks that are due right away and waits for all of them to run.
+   *
+   * @throws InterruptedException if interrupted while waiting for the tasks
+   */
+  @Benchmark
+  @OperationsPerInvocation(TASKS_PER_INVOCATION)
+  public void expire() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(TASKS_PER_INVOCATION);
+    for (int i = 0; i < TASKS_PER_INVOCATION; i++) {
+      timer.schedule(latch::countDown, 0, 0);
+    }
+    latch.await();
+  }
+}
@@ -20,7 +20,6 @@ package com.velocitypowered.proxy;
 import com.velocitypowered.api.proxy.server.ServerInfo;
 import com.velocitypowered.proxy.util.AddressUtil;
 import java.io.IOException;
-import java.net.InetSocketAddress;
 import java.util.Arrays;
 import java.util.List;
 import joptsimple.OptionParser;
@@ -109,13 +108,11 @@ public final class ProxyOptions {
       if (split.length < 2) {
         throw new ValueConversionException("Invalid server format. Use <name>:<address>");
       }
-      InetSocketAddress address;
       try {
-        address = AddressUtil.parseAddress(split[1]);
-      } catch (IllegalStateException e) {
+        return AddressUtil.createServerInfo(split[0], split[1]);
+      } catch (IllegalStateException | IllegalArgumentException e) {
         throw new ValueConversionException("Invalid hostname for server flag with name: " + split[0]);
       }
-      return new ServerInfo(split[0], address);
     }
 
     @Override
@@ -47,15 +47,19 @@ import com.velocitypowered.proxy.command.builtin.ShutdownCommand;
 import com.velocitypowered.proxy.command.builtin.VelocityCommand;
 import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.connection.client.PlayerBroadcast;
 import com.velocitypowered.proxy.connection.player.resourcepack.VelocityResourcePackInfo;
 import com.velocitypowered.proxy.connection.util.ServerListPingHandler;
 import com.velocitypowered.proxy.console.VelocityConsole;
 import com.velocitypowered.proxy.crypto.EncryptionUtils;
 import com.velocitypowered.proxy.event.VelocityEventManager;
+import com.velocitypowered.proxy.metrics.MetricsEndpoint;
 import com.velocitypowered.proxy.network.ConnectionManager;
+import com.velocitypowered.proxy.network.SharedHttpClient;
 import com.velocitypowered.proxy.plugin.VelocityPluginManager;
 import com.velocitypowered.proxy.plugin.loader.VelocityPluginContainer;
 import com.velocitypowered.proxy.plugin.loader.VelocityPluginDescription;
+import com.velocitypowered.proxy.plugin.loader.VirtualThreadExecutors;
 import com.velocitypowered.proxy.plugin.virtual.VelocityVirtualPlugin;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.util.FaviconSerializer;
@@ -73,10 +77,11 @@ import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.unix.DomainSocketAddress;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
-import java.net.http.HttpClient;
+import java.net.UnixDomainSocketAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.KeyPair;
@@ -100,6 +105,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.audience.ForwardingAudience;
+import net.kyori.adventure.identity.Identity;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.translation.GlobalTranslator;
@@ -167,6 +173,7 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
   private final VelocityScheduler scheduler;
   private final VelocityChannelRegistrar channelRegistrar = new VelocityChannelRegistrar();
   private final ServerListPingHandler serverListPingHandler;
+  private @Nullable MetricsEndpoint metricsEndpoint;
 
   VelocityServer(final ProxyOptions options) {
     pluginManager = new VelocityPluginManager(this);
@@ -281,11 +288,14 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
 
     if (!options.isIgnoreConfigServers()) {
       for (Map.Entry<String, String> entry : configuration.getServers().entrySet()) {
-        servers.register(new ServerInfo(entry.getKey(), AddressUtil.parseAddress(entry.getValue())));
+        servers.register(AddressUtil.createServerInfo(entry.getKey(), entry.getValue()));
       }
     }
 
     ipAttemptLimiter = Ratelimiters.createWithMilliseconds(configuration.getLoginRatelimit());
+    if (configuration.getSchedulerTimer().equals("hashed-wheel")) {
+      scheduler.useHashedWheelTimer();
+    }
     loadPlugins();
 
     // Go ahead and fire the proxy initialization event. We block since plugins should have a chance
@@ -313,6 +323,8 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
       this.cm.queryBind(configuration.getBind().getHostString(), configuration.getQueryPort());
     }
 
+    startMetricsEndpoint(configuration.getMetricsEndpointBind());
+
     final String defaultPackage = new String(
         new byte[] { 'o', 'r', 'g', '.', 'b', 's', 't', 'a', 't', 's' });
     if (!MetricsBase.class.getPackage().getName().startsWith(defaultPackage)) {
@@ -322,6 +334,24 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     }
   }
 
+  private void startMetricsEndpoint(@Nullable InetSocketAddress bind) {
+    if (bind == null) {
+      return;
+    }
+    try {
+      this.metricsEndpoint = MetricsEndpoint.start(this, bind);
+    } catch (IOException e) {
+      logger.error("Unable to serve metrics on {}", bind, e);
+    }
+  }
+
+  private void stopMetricsEndpoint() {
+    if (this.metricsEndpoint != null) {
+      this.metricsEndpoint.stop();
+      this.metricsEndpoint = null;
+    }
+  }
+
   private void registerTranslations() {
     final TranslationRegistry translationRegistry = TranslationRegistry
         .create(Key.key("velocity", "translations"));
@@ -441,6 +471,22 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     return this.cm.createWorker(group);
   }
 
+  /**
+   * Creates a bootstrap for connecting to the {@code target} server, over TCP or over a unix domain
+   * socket. The remote address is already set, so the bootstrap only needs to be connected.
+   *
+   * @param group the event loop group to use, or {@code null} to use the worker group
+   * @param target the server to connect to
+   * @return the bootstrap
+   */
+  public Bootstrap createBootstrap(@Nullable EventLoopGroup group, ServerInfo target) {
+    if (target.getSocketAddress() instanceof UnixDomainSocketAddress unixAddress) {
+      return this.cm.createDomainSocketWorker(group)
+          .remoteAddress(new DomainSocketAddress(unixAddress.getPath().toString()));
+    }
+    return this.cm.createWorker(group).remoteAddress(target.getAddress());
+  }
+
   public ChannelInitializer<Channel> getBackendChannelInitializer() {
     return this.cm.backendChannelInitializer.get();
   }
@@ -471,7 +517,7 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     // move back to a fallback server.
     Collection<ConnectedPlayer> evacuate = new ArrayList<>();
     for (Map.Entry<String, String> entry : newConfiguration.getServers().entrySet()) {
-      ServerInfo newInfo = new ServerInfo(entry.getKey(), AddressUtil.parseAddress(entry.getValue()));
+      ServerInfo newInfo = AddressUtil.createServerInfo(entry.getKey(), entry.getValue());
       Optional<RegisteredServer> rs = servers.getServer(entry.getKey());
       if (rs.isEmpty()) {
         servers.register(newInfo);
@@ -534,6 +580,12 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
           newConfiguration.getQueryPort());
     }
 
+    InetSocketAddress metricsBind = newConfiguration.getMetricsEndpointBind();
+    if (!Objects.equals(configuration.getMetricsEndpointBind(), metricsBind)) {
+      stopMetricsEndpoint();
+      startMetricsEndpoint(metricsBind);
+    }
+
     commandManager.setAnnounceProxyCommands(newConfiguration.isAnnounceProxyCommands());
     ipAttemptLimiter = Ratelimiters.createWithMilliseconds(newConfiguration.getLoginRatelimit());
     this.configuration = newConfiguration;
@@ -562,6 +614,7 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
       // Shutdown the connection manager, this should be
       // done first to refuse new connections
       cm.shutdown();
+      stopMetricsEndpoint();
 
       ImmutableList<ConnectedPlayer> players = ImmutableList.copyOf(connectionsByUuid.values());
       for (ConnectedPlayer player : players) {
@@ -590,6 +643,7 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
         eventManager.fire(new ProxyShutdownEvent()).join();
 
         timedOut = !scheduler.shutdown() || timedOut;
+        VirtualThreadExecutors.shutdown();
 
         if (timedOut) {
           logger.error("Your plugins took over 10 seconds to shut down.");
@@ -641,8 +695,8 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     this.cm.closeEndpoints(false);
   }
 
-  public HttpClient createHttpClient() {
-    return cm.createHttpClient();
+  public SharedHttpClient getHttpClient() {
+    return cm.getHttpClient();
   }
 
   public Ratelimiter getIpAttemptLimiter() {
@@ -812,6 +866,23 @@ public class VelocityServer implements ProxyServer, ForwardingAudience {
     return audiences;
   }
 
+  @Override
+  public void sendMessage(@NonNull Component message) {
+    this.sendMessage(Identity.nil(), message);
+  }
+
+  @Override
+  public void sendMessage(@NonNull Identity source, @NonNull Component message) {
+    this.console.sendMessage(source, message);
+    PlayerBroadcast.sendMessage(this, this.getAllPlayers(), source, message);
+  }
+
+  @Override
+  public void sendActionBar(@NonNull Component message) {
+    this.console.sendActionBar(message);
+    PlayerBroadcast.sendActionBar(this, this.getAllPlayers(), message);
+  }
+
   /**
    * Returns a Gson instance for use in serializing server ping instances.
    *
@@ -27,8 +27,12 @@ import com.mojang.brigadier.tree.CommandNode;
 import com.mojang.brigadier.tree.LiteralCommandNode;
 import com.mojang.brigadier.tree.RootCommandNode;
 import com.velocitypowered.proxy.command.brigadier.VelocityArgumentCommandNode;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -43,15 +47,25 @@ public final class CommandGraphInjector<S> {
 
   private static final StringRange ALIAS_RANGE = StringRange.at(0);
   private static final StringReader ALIAS_READER = new StringReader("");
+  private static final int MAX_CACHED_GRAPHS = 256;
 
   private final @GuardedBy("lock") CommandDispatcher<S> dispatcher;
   private final Lock lock;
+  private final Map<BitSet, List<LiteralCommandNode<S>>> cache = new ConcurrentHashMap<>();
 
   CommandGraphInjector(final CommandDispatcher<S> dispatcher, final Lock lock) {
     this.dispatcher = Preconditions.checkNotNull(dispatcher, "dispatcher");
     this.lock = Preconditions.checkNotNull(lock, "lock");
   }
 
+  /**
+   * Forgets all previously filtered graphs. Must be called while holding the write lock whenever
+   * the graph of the dispatcher changes.
+   */
+  void invalidateCache() {
+    this.cache.clear();
+  }
+
   // The term "source" is ambiguous here. We use "origin" when referring to
   // the root node we are copying nodes from to the destination node.
 
@@ -68,76 +82,195 @@ public final class CommandGraphInjector<S> {
   public void inject(final RootCommandNode<S> dest, final S source) {
     lock.lock();
     try {
-      final Map<CommandNode<S>, CommandNode<S>> done = new IdentityHashMap<>();
-      final RootCommandNode<S> origin = this.dispatcher.getRoot();
+      // Sources satisfying the same requirements see the same graph, so only the requirements are
+      // checked for every source and the filtered graph is built once per distinct outcome.
+      final BitSet outcomes = new Filter(source, null).run();
+      List<LiteralCommandNode<S>> aliases = this.cache.get(outcomes);
+      if (aliases == null) {
+        // Build the graph from the recorded outcomes rather than checking every requirement again.
+        final Filter filter = new Filter(source, outcomes);
+        filter.run();
+        aliases = List.copyOf(filter.aliases);
+        if (this.cache.size() >= MAX_CACHED_GRAPHS) {
+          this.cache.clear();
+        }
+        this.cache.put(outcomes, aliases);
+      }
+      final Map<CommandNode<S>, CommandNode<S>> copies = new IdentityHashMap<>();
+      for (final LiteralCommandNode<S> alias : aliases) {
+        this.addAlias(this.copyAlias(alias, copies), dest);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Walks the graph of the dispatcher for a source, recording the outcome of every requirement it
+   * checks. The outcomes, in the order they were checked, determine the filtered graph, which is
+   * built when replaying previously recorded outcomes.
+   */
+  private final class Filter {
+
+    private final S source;
+    private final boolean build;
+    private final BitSet outcomes;
+    private final Map<CommandNode<S>, @Nullable CommandNode<S>> done = new IdentityHashMap<>();
+    private final List<LiteralCommandNode<S>> aliases = new ArrayList<>();
+    private int checked;
+
+    Filter(final S source, final @Nullable BitSet replay) {
+      this.source = source;
+      this.build = replay != null;
+      this.outcomes = replay != null ? replay : new BitSet();
+    }
+
+    BitSet run() {
+      final RootCommandNode<S> origin = dispatcher.getRoot();
       final CommandContextBuilder<S> rootContext =
-          new CommandContextBuilder<>(this.dispatcher, source, origin, 0);
+          new CommandContextBuilder<>(dispatcher, source, origin, 0);
 
       // Filter alias nodes
       for (final CommandNode<S> node : origin.getChildren()) {
-        if (!node.canUse(source)) {
+        if (!this.passes(node)) {
           continue;
         }
 
-        final CommandContextBuilder<S> context = rootContext.copy()
-            .withNode(node, ALIAS_RANGE);
-        if (!node.canUse(context, ALIAS_READER)) {
-          continue;
+        if (this.build) {
+          if (!this.replay()) {
+            continue;
+          }
+        } else {
+          final CommandContextBuilder<S> context = rootContext.copy()
+              .withNode(node, ALIAS_RANGE);
+          if (!this.record(node.canUse(context, ALIAS_READER))) {
+            continue;
+          }
         }
 
         final LiteralCommandNode<S> asLiteral = (LiteralCommandNode<S>) node;
-        final LiteralCommandNode<S> copy = asLiteral.createBuilder().build();
         final VelocityArgumentCommandNode<S, ?> argsNode =
             VelocityCommands.getArgumentsNode(asLiteral);
+        if (!this.build) {
+          if (argsNode == null) {
+            this.copyChildren(node, null);
+          }
+          continue;
+        }
+
+        final LiteralCommandNode<S> copy = asLiteral.createBuilder().build();
         if (argsNode == null) {
           // This literal is associated to a BrigadierCommand, filter normally.
-          this.copyChildren(node, copy, source, done);
+          this.copyChildren(node, copy);
         } else {
           // Copy all children nodes (arguments node and hints)
           for (final CommandNode<S> child : node.getChildren()) {
             copy.addChild(child);
           }
         }
-        this.addAlias(copy, dest);
+        this.aliases.add(copy);
       }
-    } finally {
-      lock.unlock();
+      return this.outcomes;
+    }
+
+    private boolean passes(final CommandNode<S> node) {
+      return this.build ? this.replay() : this.record(node.canUse(source));
+    }
+
+    private boolean replay() {
+      return this.outcomes.get(this.checked++);
+    }
+
+    private boolean record(final boolean outcome) {
+      if (outcome) {
+        this.outcomes.set(this.checked);
+      }
+      this.checked++;
+      return outcome;
+    }
+
+    // When only recording outcomes, nodes are "copied" to themselves.
+    private @Nullable CommandNode<S> filterNode(final CommandNode<S> node) {
+      if (done.containsKey(node)) {
+        return done.get(node);
+      }
+      // We only check the non-context requirement when filtering alias nodes.
+      // Otherwise, we would need to manually craft context builder and reader instances,
+      // which is both incorrect and inefficient. The reason why we can do so for alias
+      // literals is due to the empty string being a valid and expected input by
+      // the context-aware requirement (when suggesting the literal name).
+      if (!this.passes(node)) {
+        return null;
+      }
+      final ArgumentBuilder<S, ?> builder = this.build ? node.createBuilder() : null;
+      if (node.getRedirect() != null) {
+        // Redirects to non-Brigadier commands are not supported. Luckily,
+        // we don't expose the root node to API users, so they can't access
+        // nodes associated to other commands.
+        final CommandNode<S> target = this.filterNode(node.getRedirect());
+        if (builder != null) {
+          builder.forward(target, builder.getRedirectModifier(), builder.isFork());
+        }
+      }
+      final CommandNode<S> result = builder != null ? builder.build() : node;
+      done.put(node, result);
+      this.copyChildren(node, builder != null ? result : null);
+      return result;
     }
+
+    private void copyChildren(final CommandNode<S> parent, final @Nullable CommandNode<S> dest) {
+      for (final CommandNode<S> child : parent.getChildren()) {
+        final CommandNode<S> filtered = this.filterNode(child);
+        if (filtered != null && dest != null) {
+          dest.addChild(filtered);
+        }
+      }
+    }
+  }
+
+  /**
+   * Copies a cached alias node for a destination. The cached nodes are shared by every source
+   * seeing the same graph, while the destination may be modified afterwards, for instance through
+   * the {@link com.velocitypowered.api.event.command.PlayerAvailableCommandsEvent}, so the whole
+   * subtree is copied. The arguments nodes of non-Brigadier commands are shared, as they are when
+   * the graph is first built.
+   *
+   * @param alias  the cached alias node
+   * @param copies the nodes copied so far for the destination, keyed by the cached node
+   * @return a copy of the alias node
+   */
+  private LiteralCommandNode<S> copyAlias(final LiteralCommandNode<S> alias,
+      final Map<CommandNode<S>, CommandNode<S>> copies) {
+    if (VelocityCommands.getArgumentsNode(alias) == null) {
+      return (LiteralCommandNode<S>) this.copyNode(alias, copies);
+    }
+    final LiteralCommandNode<S> copy = alias.createBuilder().build();
+    for (final CommandNode<S> child : alias.getChildren()) {
+      copy.addChild(child);
+    }
+    return copy;
   }
 
-  private @Nullable CommandNode<S> filterNode(final CommandNode<S> node, final S source, final Map<CommandNode<S>, CommandNode<S>> done) {
-    if (done.containsKey(node)) {
-      return done.get(node);
+  private CommandNode<S> copyNode(final CommandNode<S> node,
+      final Map<CommandNode<S>, CommandNode<S>> copies) {
+    CommandNode<S> copy = copies.get(node);
+    if (copy != null) {
+      return copy;
     }
-    // We only check the non-context requirement when filtering alias nodes.
-    // Otherwise, we would need to manually craft context builder and reader instances,
-    // which is both incorrect and inefficient. The reason why we can do so for alias
-    // literals is due to the empty string being a valid and expected input by
-    // the context-aware requirement (when suggesting the literal name).
-    if (!node.canUse(source)) {
-      return null;
+    if (node instanceof VelocityArgumentCommandNode) {
+      return node;
     }
     final ArgumentBuilder<S, ?> builder = node.createBuilder();
     if (node.getRedirect() != null) {
-      // Redirects to non-Brigadier commands are not supported. Luckily,
-      // we don't expose the root node to API users, so they can't access
-      // nodes associated to other commands.
-      final CommandNode<S> target = this.filterNode(node.getRedirect(), source, done);
-      builder.forward(target, builder.getRedirectModifier(), builder.isFork());
+      builder.forward(this.copyNode(node.getRedirect(), copies), builder.getRedirectModifier(),
+          builder.isFork());
     }
-    final CommandNode<S> result = builder.build();
-    done.put(node, result);
-    this.copyChildren(node, result, source, done);
-    return result;
-  }
-
-  private void copyChildren(final CommandNode<S> parent, final CommandNode<S> dest, final S source, final Map<CommandNode<S>, CommandNode<S>> done) {
-    for (final CommandNode<S> child : parent.getChildren()) {
-      final CommandNode<S> filtered = this.filterNode(child, source, done);
-      if (filtered != null) {
-        dest.addChild(filtered);
-      }
+    copy = builder.build();
+    copies.put(node, copy);
+    for (final CommandNode<S> child : node.getChildren()) {
+      copy.addChild(this.copyNode(child, copies));
     }
+    return copy;
   }
 
   private void addAlias(final LiteralCommandNode<S> node, final RootCommandNode<S> dest) {
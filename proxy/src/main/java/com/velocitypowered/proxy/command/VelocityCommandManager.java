@@ -158,7 +158,13 @@ public class VelocityCommandManager implements CommandManager {
   private <T extends Command> void internalRegister(final CommandRegistrar<T> registrar,
       final Command command, final CommandMeta meta) {
     final Class<T> superInterface = registrar.registrableSuperInterface();
-    registrar.register(meta, superInterface.cast(command));
+    lock.writeLock().lock();
+    try {
+      registrar.register(meta, superInterface.cast(command));
+      injector.invalidateCache();
+    } finally {
+      lock.writeLock().unlock();
+    }
     for (String alias : meta.getAliases()) {
       commandMetas.put(alias, meta);
     }
@@ -184,6 +190,7 @@ public class VelocityCommandManager implements CommandManager {
       // the removed literal in the graph.
       dispatcher.getRoot().removeChildByName(alias.toLowerCase(Locale.ENGLISH));
       commandMetas.remove(alias);
+      injector.invalidateCache();
     } finally {
       lock.writeLock().unlock();
     }
@@ -202,6 +209,7 @@ public class VelocityCommandManager implements CommandManager {
           dispatcher.getRoot().removeChildByName(lowercased);
         }
       }
+      injector.invalidateCache();
     } finally {
       lock.writeLock().unlock();
     }
@@ -25,17 +25,20 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.annotations.Expose;
 import com.velocitypowered.api.proxy.config.ProxyConfig;
+import com.velocitypowered.api.proxy.server.ServerInfo;
 import com.velocitypowered.api.util.Favicon;
 import com.velocitypowered.proxy.config.migration.ConfigurationMigration;
 import com.velocitypowered.proxy.config.migration.ForwardingMigration;
 import com.velocitypowered.proxy.config.migration.KeyAuthenticationMigration;
 import com.velocitypowered.proxy.config.migration.MotdMigration;
 import com.velocitypowered.proxy.config.migration.TransferIntegrationMigration;
+import com.velocitypowered.proxy.network.TransportType;
 import com.velocitypowered.proxy.util.AddressUtil;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.URL;
+import java.net.UnixDomainSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -86,6 +89,8 @@ public class VelocityConfiguration implements ProxyConfig {
   private final Query query;
   private final Metrics metrics;
   @Expose
+  private final AdaptiveCompression adaptiveCompression;
+  @Expose
   private boolean enablePlayerAddressLogging = true;
   private net.kyori.adventure.text.@MonotonicNonNull Component motdAsComponent;
   private @Nullable Favicon favicon;
@@ -93,12 +98,13 @@ public class VelocityConfiguration implements ProxyConfig {
   private boolean forceKeyAuthentication = true; // Added in 1.19
 
   private VelocityConfiguration(Servers servers, ForcedHosts forcedHosts, Advanced advanced,
-      Query query, Metrics metrics) {
+      Query query, Metrics metrics, AdaptiveCompression adaptiveCompression) {
     this.servers = servers;
     this.forcedHosts = forcedHosts;
     this.advanced = advanced;
     this.query = query;
     this.metrics = metrics;
+    this.adaptiveCompression = adaptiveCompression;
   }
 
   private VelocityConfiguration(String bind, String motd, int showMaxPlayers, boolean onlineMode,
@@ -106,7 +112,8 @@ public class VelocityConfiguration implements ProxyConfig {
       PlayerInfoForwarding playerInfoForwardingMode, byte[] forwardingSecret,
       boolean onlineModeKickExistingPlayers, PingPassthroughMode pingPassthrough,
       boolean enablePlayerAddressLogging, Servers servers, ForcedHosts forcedHosts,
-      Advanced advanced, Query query, Metrics metrics, boolean forceKeyAuthentication) {
+      Advanced advanced, Query query, Metrics metrics, AdaptiveCompression adaptiveCompression,
+      boolean forceKeyAuthentication) {
     this.bind = bind;
     this.motd = motd;
     this.showMaxPlayers = showMaxPlayers;
@@ -123,6 +130,7 @@ public class VelocityConfiguration implements ProxyConfig {
     this.advanced = advanced;
     this.query = query;
     this.metrics = metrics;
+    this.adaptiveCompression = adaptiveCompression;
     this.forceKeyAuthentication = forceKeyAuthentication;
   }
 
@@ -171,12 +179,25 @@ public class VelocityConfiguration implements ProxyConfig {
       logger.warn("You don't have any servers configured.");
     }
 
+    TransportType transportType = null;
     for (Map.Entry<String, String> entry : servers.getServers().entrySet()) {
+      ServerInfo info;
       try {
-        AddressUtil.parseAddress(entry.getValue());
+        info = AddressUtil.createServerInfo(entry.getKey(), entry.getValue());
       } catch (IllegalArgumentException e) {
         logger.error("Server {} does not have a valid IP address.", entry.getKey(), e);
         valid = false;
+        continue;
+      }
+      if (info.getSocketAddress() instanceof UnixDomainSocketAddress) {
+        if (transportType == null) {
+          transportType = TransportType.bestType();
+        }
+        if (!transportType.supportsDomainSockets()) {
+          logger.error("Server {} is a unix domain socket, which the {} transport can't connect "
+              + "to. {}", entry.getKey(), transportType, TransportType.DOMAIN_SOCKETS_UNSUPPORTED);
+          valid = false;
+        }
       }
     }
 
@@ -230,6 +251,46 @@ public class VelocityConfiguration implements ProxyConfig {
       valid = false;
     }
 
+    if (advanced.pingPassthroughCacheTtl < 0) {
+      logger.error("Invalid ping passthrough cache TTL {}ms", advanced.pingPassthroughCacheTtl);
+      valid = false;
+    }
+
+    if (advanced.parallelConnectCandidates < 1) {
+      logger.error("Invalid parallel connect candidate count {}",
+          advanced.parallelConnectCandidates);
+      valid = false;
+    }
+
+    if (advanced.backendConnectionPoolSize < 0) {
+      logger.error("Invalid backend connection pool size {}", advanced.backendConnectionPoolSize);
+      valid = false;
+    }
+
+    // The idle timeout only matters once connections are pooled.
+    if (advanced.backendConnectionPoolSize > 0
+        && (advanced.backendConnectionPoolIdleTimeout <= 0
+        || advanced.backendConnectionPoolIdleTimeout >= advanced.readTimeout)) {
+      logger.error("Invalid backend connection pool idle timeout {}ms, it must be positive and "
+          + "shorter than the read timeout", advanced.backendConnectionPoolIdleTimeout);
+      valid = false;
+    }
+
+    if (!advanced.metricsEndpointBind.isEmpty()) {
+      try {
+        AddressUtil.parseAddress(advanced.metricsEndpointBind);
+      } catch (IllegalArgumentException e) {
+        logger.error("'metrics-endpoint-bind' option does not specify a valid IP address.", e);
+        valid = false;
+      }
+    }
+
+    if (!advanced.schedulerTimer.equals("executor")
+        && !advanced.schedulerTimer.equals("hashed-wheel")) {
+      logger.error("Invalid scheduler timer {}", advanced.schedulerTimer);
+      valid = false;
+    }
+
     loadFavicon();
 
     return valid;
@@ -363,6 +424,26 @@ public class VelocityConfiguration implements ProxyConfig {
     return advanced.isTcpFastOpen();
   }
 
+  public boolean isAdaptiveCompressionEnabled() {
+    return adaptiveCompression.isEnabled();
+  }
+
+  public boolean isSkipLocalCompression() {
+    return adaptiveCompression.isSkipLocalConnections();
+  }
+
+  public int getAdaptiveCompressionMinLevel() {
+    return adaptiveCompression.getMinLevel();
+  }
+
+  public int getAdaptiveCompressionMaxLevel() {
+    return adaptiveCompression.getMaxLevel();
+  }
+
+  public int getAdaptiveCompressionTargetNanosPerByte() {
+    return adaptiveCompression.getTargetNanosPerByte();
+  }
+
   public Metrics getMetrics() {
     return metrics;
   }
@@ -403,6 +484,44 @@ public class VelocityConfiguration implements ProxyConfig {
     return this.advanced.isAcceptTransfers();
   }
 
+  public boolean isBackendLinkCompression() {
+    return advanced.isBackendLinkCompression();
+  }
+
+  public String getSchedulerTimer() {
+    return advanced.getSchedulerTimer();
+  }
+
+  public boolean isBatchTabListUpdates() {
+    return advanced.isBatchTabListUpdates();
+  }
+
+  public int getPingPassthroughCacheTtl() {
+    return advanced.getPingPassthroughCacheTtl();
+  }
+
+  public int getParallelConnectCandidates() {
+    return advanced.getParallelConnectCandidates();
+  }
+
+  public int getBackendConnectionPoolSize() {
+    return advanced.getBackendConnectionPoolSize();
+  }
+
+  public int getBackendConnectionPoolIdleTimeout() {
+    return advanced.getBackendConnectionPoolIdleTimeout();
+  }
+
+  /**
+   * Returns the address to serve metrics on.
+   *
+   * @return the address, or {@code null} if metrics should not be served
+   */
+  public @Nullable InetSocketAddress getMetricsEndpointBind() {
+    String bind = advanced.getMetricsEndpointBind();
+    return bind.isEmpty() ? null : AddressUtil.parseAndResolveAddress(bind);
+  }
+
   public boolean isForceKeyAuthentication() {
     return forceKeyAuthentication;
   }
@@ -421,6 +540,7 @@ public class VelocityConfiguration implements ProxyConfig {
         .add("forcedHosts", forcedHosts)
         .add("advanced", advanced)
         .add("query", query)
+        .add("adaptiveCompression", adaptiveCompression)
         .add("favicon", favicon)
         .add("enablePlayerAddressLogging", enablePlayerAddressLogging)
         .add("forceKeyAuthentication", forceKeyAuthentication)
@@ -498,6 +618,7 @@ public class VelocityConfiguration implements ProxyConfig {
       final CommentedConfig advancedConfig = config.get("advanced");
       final CommentedConfig queryConfig = config.get("query");
       final CommentedConfig metricsConfig = config.get("metrics");
+      final CommentedConfig adaptiveCompressionConfig = config.get("adaptive-compression");
       final PlayerInfoForwarding forwardingMode = config.getEnumOrElse(
               "player-info-forwarding-mode", PlayerInfoForwarding.NONE);
       final PingPassthroughMode pingPassthroughMode = config.getEnumOrElse("ping-passthrough",
@@ -539,6 +660,7 @@ public class VelocityConfiguration implements ProxyConfig {
               new Advanced(advancedConfig),
               new Query(queryConfig),
               new Metrics(metricsConfig),
+              new AdaptiveCompression(adaptiveCompressionConfig),
               forceKeyAuthentication
       );
     }
@@ -716,6 +838,22 @@ public class VelocityConfiguration implements ProxyConfig {
     private boolean logPlayerConnections = true;
     @Expose
     private boolean acceptTransfers = false;
+    @Expose
+    private boolean backendLinkCompression = false;
+    @Expose
+    private String schedulerTimer = "executor";
+    @Expose
+    private boolean batchTabListUpdates = false;
+    @Expose
+    private int pingPassthroughCacheTtl = 1000;
+    @Expose
+    private int parallelConnectCandidates = 1;
+    @Expose
+    private int backendConnectionPoolSize = 0;
+    @Expose
+    private int backendConnectionPoolIdleTimeout = 15000;
+    @Expose
+    private String metricsEndpointBind = "";
 
     private Advanced() {
     }
@@ -741,6 +879,15 @@ public class VelocityConfiguration implements ProxyConfig {
         this.logCommandExecutions = config.getOrElse("log-command-executions", false);
         this.logPlayerConnections = config.getOrElse("log-player-connections", true);
         this.acceptTransfers = config.getOrElse("accepts-transfers", false);
+        this.backendLinkCompression = config.getOrElse("backend-link-compression", false);
+        this.schedulerTimer = config.getOrElse("scheduler-timer", "executor");
+        this.batchTabListUpdates = config.getOrElse("batch-tab-list-updates", false);
+        this.pingPassthroughCacheTtl = config.getIntOrElse("ping-passthrough-cache-ttl", 1000);
+        this.parallelConnectCandidates = config.getIntOrElse("parallel-connect-candidates", 1);
+        this.backendConnectionPoolSize = config.getIntOrElse("backend-connection-pool-size", 0);
+        this.backendConnectionPoolIdleTimeout = config.getIntOrElse(
+            "backend-connection-pool-idle-timeout", 15000);
+        this.metricsEndpointBind = config.getOrElse("metrics-endpoint-bind", "");
       }
     }
 
@@ -804,6 +951,38 @@ public class VelocityConfiguration implements ProxyConfig {
       return this.acceptTransfers;
     }
 
+    public boolean isBackendLinkCompression() {
+      return backendLinkCompression;
+    }
+
+    public String getSchedulerTimer() {
+      return schedulerTimer;
+    }
+
+    public boolean isBatchTabListUpdates() {
+      return batchTabListUpdates;
+    }
+
+    public int getPingPassthroughCacheTtl() {
+      return pingPassthroughCacheTtl;
+    }
+
+    public int getParallelConnectCandidates() {
+      return parallelConnectCandidates;
+    }
+
+    public int getBackendConnectionPoolSize() {
+      return backendConnectionPoolSize;
+    }
+
+    public int getBackendConnectionPoolIdleTimeout() {
+      return backendConnectionPoolIdleTimeout;
+    }
+
+    public String getMetricsEndpointBind() {
+      return metricsEndpointBind;
+    }
+
     @Override
     public String toString() {
       return "Advanced{"
@@ -821,6 +1000,14 @@ public class VelocityConfiguration implements ProxyConfig {
           + ", logCommandExecutions=" + logCommandExecutions
           + ", logPlayerConnections=" + logPlayerConnections
           + ", acceptTransfers=" + acceptTransfers
+          + ", backendLinkCompression=" + backendLinkCompression
+          + ", schedulerTimer='" + schedulerTimer + '\''
+          + ", batchTabListUpdates=" + batchTabListUpdates
+          + ", pingPassthroughCacheTtl=" + pingPassthroughCacheTtl
+          + ", parallelConnectCandidates=" + parallelConnectCandidates
+          + ", backendConnectionPoolSize=" + backendConnectionPoolSize
+          + ", backendConnectionPoolIdleTimeout=" + backendConnectionPoolIdleTimeout
+          + ", metricsEndpointBind='" + metricsEndpointBind + '\''
           + '}';
     }
   }
@@ -882,6 +1069,61 @@ public class VelocityConfiguration implements ProxyConfig {
     }
   }
 
+  private static class AdaptiveCompression {
+
+    @Expose
+    private boolean enabled = false;
+    @Expose
+    private boolean skipLocalConnections = true;
+    @Expose
+    private int minLevel = 1;
+    @Expose
+    private int maxLevel = 9;
+    @Expose
+    private int targetNanosPerByte = 25;
+
+    private AdaptiveCompression(CommentedConfig config) {
+      if (config != null) {
+        this.enabled = config.getOrElse("enabled", false);
+        this.skipLocalConnections = config.getOrElse("skip-local-connections", true);
+        this.minLevel = Math.max(1, config.getIntOrElse("min-level", 1));
+        this.maxLevel = Math.max(this.minLevel, Math.min(9, config.getIntOrElse("max-level", 9)));
+        this.targetNanosPerByte = config.getIntOrElse("target-nanos-per-byte", 25);
+      }
+    }
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public boolean isSkipLocalConnections() {
+      return skipLocalConnections;
+    }
+
+    public int getMinLevel() {
+      return minLevel;
+    }
+
+    public int getMaxLevel() {
+      return maxLevel;
+    }
+
+    public int getTargetNanosPerByte() {
+      return targetNanosPerByte;
+    }
+
+    @Override
+    public String toString() {
+      return "AdaptiveCompression{"
+          + "enabled=" + enabled
+          + ", skipLocalConnections=" + skipLocalConnections
+          + ", minLevel=" + minLevel
+          + ", maxLevel=" + maxLevel
+          + ", targetNanosPerByte=" + targetNanosPerByte
+          + '}';
+    }
+  }
+
   /**
    * Configuration for metrics.
    */
@@ -25,6 +25,8 @@ import static com.velocitypowered.proxy.network.Connections.FRAME_DECODER;
 import static com.velocitypowered.proxy.network.Connections.FRAME_ENCODER;
 import static com.velocitypowered.proxy.network.Connections.MINECRAFT_DECODER;
 import static com.velocitypowered.proxy.network.Connections.MINECRAFT_ENCODER;
+import static com.velocitypowered.proxy.network.Connections.STREAM_COMPRESSION_DECODER;
+import static com.velocitypowered.proxy.network.Connections.STREAM_COMPRESSION_ENCODER;
 
 import com.google.common.base.Preconditions;
 import com.velocitypowered.api.network.ProtocolVersion;
@@ -33,19 +35,27 @@ import com.velocitypowered.natives.encryption.VelocityCipher;
 import com.velocitypowered.natives.encryption.VelocityCipherFactory;
 import com.velocitypowered.natives.util.Natives;
 import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.connection.client.HandshakeSessionHandler;
 import com.velocitypowered.proxy.connection.client.InitialLoginSessionHandler;
 import com.velocitypowered.proxy.connection.client.StatusSessionHandler;
 import com.velocitypowered.proxy.network.Connections;
+import com.velocitypowered.proxy.protocol.CompressedFrame;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.VelocityConnectionEvent;
+import com.velocitypowered.proxy.protocol.netty.AdaptiveCompressionTuner;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCipherDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCipherEncoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCompressDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCompressorAndLengthEncoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftFusedDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftFusedEncoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftStreamCompressDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftStreamCompressEncoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftVarintFrameDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftVarintLengthEncoder;
 import com.velocitypowered.proxy.protocol.netty.PlayPacketQueueInboundHandler;
 import com.velocitypowered.proxy.protocol.netty.PlayPacketQueueOutboundHandler;
@@ -68,6 +78,7 @@ import java.security.GeneralSecurityException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
@@ -82,8 +93,13 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 public class MinecraftConnection extends ChannelInboundHandlerAdapter {
 
   private static final Logger logger = LogManager.getLogger(MinecraftConnection.class);
+  private static final boolean FUSED_DECODER =
+      !Boolean.getBoolean("velocity.disable-fused-decoder");
+  private static final boolean FUSED_ENCODER =
+      !Boolean.getBoolean("velocity.disable-fused-encoder");
 
   private final Channel channel;
+  private final Executor inlineEventLoop;
   private SocketAddress remoteAddress;
   private StateRegistry state;
   private Map<StateRegistry, MinecraftSessionHandler> sessionHandlers;
@@ -102,6 +118,13 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
    */
   public MinecraftConnection(Channel channel, VelocityServer server) {
     this.channel = channel;
+    this.inlineEventLoop = task -> {
+      if (channel.eventLoop().inEventLoop()) {
+        task.run();
+      } else {
+        channel.eventLoop().execute(task);
+      }
+    };
     this.remoteAddress = channel.remoteAddress();
     this.server = server;
     this.state = StateRegistry.HANDSHAKE;
@@ -158,6 +181,8 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
             proxyMessage.sourcePort());
       } else if (msg instanceof ByteBuf) {
         activeSessionHandler.handleUnknown((ByteBuf) msg);
+      } else if (msg instanceof CompressedFrame frame) {
+        activeSessionHandler.handleCompressed(frame);
       }
     } finally {
       ReferenceCountUtil.release(msg);
@@ -222,6 +247,18 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     return channel.eventLoop();
   }
 
+  /**
+   * Returns an executor that runs tasks right away when called on this connection's event loop,
+   * and schedules them on the event loop otherwise. Using it for callbacks of events fired from the
+   * event loop means that, if all handlers ran synchronously, the callback runs immediately instead
+   * of waiting for another trip through the event loop.
+   *
+   * @return an executor running tasks on this connection's event loop
+   */
+  public Executor inlineEventLoop() {
+    return inlineEventLoop;
+  }
+
   /**
    * Writes and immediately flushes a message to the connection.
    *
@@ -460,6 +497,7 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     this.sessionHandlers.put(registry, sessionHandler);
     this.activeSessionHandler = sessionHandler;
     setState(registry);
+    updatePassthroughFilter();
     sessionHandler.activated();
   }
 
@@ -482,6 +520,7 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
       }
       this.activeSessionHandler = handler;
       setState(registry);
+      updatePassthroughFilter();
       if (flag) {
         handler.activated();
       }
@@ -489,6 +528,14 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     return handler != null;
   }
 
+  private void updatePassthroughFilter() {
+    final MinecraftDecoder minecraftDecoder = this.channel.pipeline()
+        .get(MinecraftDecoder.class);
+    if (minecraftDecoder != null && this.activeSessionHandler != null) {
+      minecraftDecoder.setPassthroughFilter(this.activeSessionHandler.getPassthroughFilter());
+    }
+  }
+
   /**
    * Adds a secondary session handler for this connection.
    *
@@ -518,31 +565,51 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     ensureInEventLoop();
 
     if (threshold == -1) {
-      final ChannelHandler removedDecoder = channel.pipeline().remove(COMPRESSION_DECODER);
+      final ChannelHandler removedDecoder =
+          channel.pipeline().get(FRAME_DECODER) instanceof MinecraftFusedDecoder fused
+              ? fused.disableCompression() : channel.pipeline().remove(COMPRESSION_DECODER);
       final ChannelHandler removedEncoder = channel.pipeline().remove(COMPRESSION_ENCODER);
 
       if (removedDecoder != null && removedEncoder != null) {
         channel.pipeline().addBefore(MINECRAFT_DECODER, FRAME_ENCODER,
             MinecraftVarintLengthEncoder.INSTANCE);
+        if (removedEncoder instanceof MinecraftFusedEncoder fused) {
+          // Encryption is still enabled, so it needs its own handler again.
+          channel.pipeline().addBefore(FRAME_ENCODER, CIPHER_ENCODER,
+              new MinecraftCipherEncoder(fused.transferCipher()));
+        }
         channel.pipeline().fireUserEventTriggered(VelocityConnectionEvent.COMPRESSION_DISABLED);
       }
     } else {
-      MinecraftCompressDecoder decoder = (MinecraftCompressDecoder) channel.pipeline()
-          .get(COMPRESSION_DECODER);
-      MinecraftCompressorAndLengthEncoder encoder =
-          (MinecraftCompressorAndLengthEncoder) channel.pipeline().get(COMPRESSION_ENCODER);
+      MinecraftCompressDecoder decoder = getCompressDecoder();
+      ChannelHandler encoder = channel.pipeline().get(COMPRESSION_ENCODER);
       if (decoder != null && encoder != null) {
         decoder.setThreshold(threshold);
-        encoder.setThreshold(threshold);
+        if (encoder instanceof MinecraftFusedEncoder fused) {
+          fused.setThreshold(threshold);
+        } else {
+          ((MinecraftCompressorAndLengthEncoder) encoder).setThreshold(threshold);
+        }
       } else {
         int level = server.getConfiguration().getCompressionLevel();
         VelocityCompressor compressor = Natives.compress.get().create(level);
 
-        encoder = new MinecraftCompressorAndLengthEncoder(threshold, compressor);
         decoder = new MinecraftCompressDecoder(threshold, compressor);
+        final MinecraftCipherEncoder cipherEncoder = (MinecraftCipherEncoder) channel.pipeline()
+            .get(CIPHER_ENCODER);
+        if (FUSED_ENCODER && cipherEncoder != null) {
+          encoder = new MinecraftFusedEncoder(threshold, compressor, cipherEncoder);
+          channel.pipeline().remove(CIPHER_ENCODER);
+        } else {
+          encoder = new MinecraftCompressorAndLengthEncoder(threshold, compressor);
+        }
 
         channel.pipeline().remove(FRAME_ENCODER);
-        channel.pipeline().addBefore(MINECRAFT_DECODER, COMPRESSION_DECODER, decoder);
+        if (FUSED_DECODER && channel.pipeline().get(CIPHER_DECODER) != null) {
+          fuseDecoders(decoder);
+        } else {
+          channel.pipeline().addBefore(MINECRAFT_DECODER, COMPRESSION_DECODER, decoder);
+        }
         channel.pipeline().addBefore(MINECRAFT_ENCODER, COMPRESSION_ENCODER, encoder);
 
         channel.pipeline().fireUserEventTriggered(VelocityConnectionEvent.COMPRESSION_ENABLED);
@@ -550,6 +617,104 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     }
   }
 
+  /**
+   * Replaces the cipher, frame and compression decoders with a single {@link MinecraftFusedDecoder}.
+   *
+   * @param compressDecoder the compression decoder to use
+   */
+  private void fuseDecoders(MinecraftCompressDecoder compressDecoder) {
+    final MinecraftCipherDecoder cipherDecoder = (MinecraftCipherDecoder) channel.pipeline()
+        .get(CIPHER_DECODER);
+    final MinecraftVarintFrameDecoder frameDecoder = (MinecraftVarintFrameDecoder) channel
+        .pipeline().get(FRAME_DECODER);
+    final MinecraftFusedDecoder fusedDecoder =
+        new MinecraftFusedDecoder(cipherDecoder, frameDecoder, compressDecoder);
+    channel.pipeline().remove(CIPHER_DECODER);
+    channel.pipeline().replace(FRAME_DECODER, FRAME_DECODER, fusedDecoder);
+  }
+
+  private @Nullable MinecraftCompressDecoder getCompressDecoder() {
+    if (channel.pipeline().get(FRAME_DECODER) instanceof MinecraftFusedDecoder fused) {
+      return fused.getCompressDecoder();
+    }
+    return (MinecraftCompressDecoder) channel.pipeline().get(COMPRESSION_DECODER);
+  }
+
+  /**
+   * Lets the compression level of this connection be adjusted at runtime, according to the
+   * adaptive compression settings. Compression must already be enabled.
+   */
+  public void enableAdaptiveCompression() {
+    ensureInEventLoop();
+
+    final VelocityConfiguration configuration = server.getConfiguration();
+    final AdaptiveCompressionTuner tuner = new AdaptiveCompressionTuner(Natives.compress.get(),
+        configuration.getCompressionLevel(), configuration.getAdaptiveCompressionMinLevel(),
+        configuration.getAdaptiveCompressionMaxLevel(),
+        configuration.getAdaptiveCompressionTargetNanosPerByte());
+    final ChannelHandler encoder = channel.pipeline().get(COMPRESSION_ENCODER);
+    if (encoder instanceof MinecraftFusedEncoder fused) {
+      fused.setTuner(tuner);
+    } else if (encoder instanceof MinecraftCompressorAndLengthEncoder compressorEncoder) {
+      compressorEncoder.setTuner(tuner);
+    }
+  }
+
+  /**
+   * Compresses everything written to this connection from now on as one continuous stream. Used
+   * instead of regular compression for backends that support it.
+   */
+  public void enableOutboundStreamCompression() {
+    ensureOpen();
+    ensureInEventLoop();
+
+    if (channel.pipeline().get(STREAM_COMPRESSION_ENCODER) == null) {
+      channel.pipeline().addBefore(FRAME_ENCODER, STREAM_COMPRESSION_ENCODER,
+          new MinecraftStreamCompressEncoder(server.getConfiguration().getCompressionLevel()));
+    }
+  }
+
+  /**
+   * Inflates everything received on this connection after the packet currently being handled as
+   * one continuous stream.
+   */
+  public void enableInboundStreamCompression() {
+    ensureOpen();
+    ensureInEventLoop();
+
+    if (channel.pipeline().get(STREAM_COMPRESSION_DECODER) == null) {
+      final MinecraftVarintFrameDecoder frameDecoder = (MinecraftVarintFrameDecoder) channel
+          .pipeline().get(FRAME_DECODER);
+      channel.pipeline().addBefore(FRAME_DECODER, STREAM_COMPRESSION_DECODER,
+          new MinecraftStreamCompressDecoder(frameDecoder));
+    }
+  }
+
+  /**
+   * Determines whether compression is enabled on this connection.
+   *
+   * @return {@code true} if packets are compressed
+   */
+  public boolean isCompressionEnabled() {
+    return channel.pipeline().get(COMPRESSION_ENCODER) != null;
+  }
+
+  /**
+   * Allows compressed packets that the active session handler passes through to be forwarded
+   * without being inflated. Such packets are handed to
+   * {@link MinecraftSessionHandler#handleCompressed(CompressedFrame)}, and can only be written to
+   * connections that have compression enabled.
+   */
+  public void enableCompressedPassthrough() {
+    ensureInEventLoop();
+
+    final MinecraftCompressDecoder compressDecoder = getCompressDecoder();
+    final MinecraftDecoder minecraftDecoder = channel.pipeline().get(MinecraftDecoder.class);
+    if (compressDecoder != null && minecraftDecoder != null) {
+      compressDecoder.setPassthroughDecoder(minecraftDecoder);
+    }
+  }
+
   /**
    * Enables encryption on the connection.
    *
@@ -17,6 +17,7 @@
 
 package com.velocitypowered.proxy.connection;
 
+import com.velocitypowered.proxy.protocol.CompressedFrame;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.packet.AvailableCommandsPacket;
 import com.velocitypowered.proxy.protocol.packet.BossBarPacket;
@@ -79,6 +80,8 @@ import com.velocitypowered.proxy.protocol.packet.title.TitleSubtitlePacket;
 import com.velocitypowered.proxy.protocol.packet.title.TitleTextPacket;
 import com.velocitypowered.proxy.protocol.packet.title.TitleTimesPacket;
 import io.netty.buffer.ByteBuf;
+import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Interface for dispatching received Minecraft packets.
@@ -97,6 +100,21 @@ public interface MinecraftSessionHandler {
 
   }
 
+  default void handleCompressed(CompressedFrame frame) {
+
+  }
+
+  /**
+   * Returns a filter matching the packet types this session handler never needs to inspect. While
+   * in the PLAY state, such packets are not decoded and are passed to {@link #handleUnknown(ByteBuf)}
+   * as-is.
+   *
+   * @return the passthrough filter, or {@code null} if every known packet should be decoded
+   */
+  default @Nullable Predicate<Class<? extends MinecraftPacket>> getPassthroughFilter() {
+    return null;
+  }
+
   default void connected() {
 
   }
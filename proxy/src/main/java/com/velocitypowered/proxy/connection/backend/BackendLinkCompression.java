@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.backend;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.unix.DomainSocketAddress;
+import io.netty.handler.codec.DecoderException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * Negotiates how the connection between the proxy and a cooperating backend server is compressed.
+ *
+ * <p>A backend that supports this sends a login plugin message on {@link #CHANNEL} before it
+ * enables compression, containing a VarInt count followed by the VarInt IDs of the modes it
+ * supports. The proxy answers with the VarInt ID of the mode it picked, or declines the message if
+ * it does not want to use any of them, in which case regular compression is used.
+ *
+ * <ul>
+ *   <li>{@link #MODE_UNCOMPRESSED}: neither side compresses anything. Only picked for backends
+ *   on the same machine. The threshold in the backend's SetCompression packet is ignored.</li>
+ *   <li>{@link #MODE_STREAM}: all data is compressed as one continuous deflate stream, which is
+ *   flushed whenever the connection is. The proxy starts compressing right after its response,
+ *   the backend right after its SetCompression packet. Packets themselves are not compressed
+ *   individually.</li>
+ * </ul>
+ */
+public final class BackendLinkCompression {
+
+  public static final String CHANNEL = "velocity:link_compression";
+
+  public static final int MODE_UNCOMPRESSED = 0;
+  public static final int MODE_STREAM = 1;
+
+  private static final int MAX_MODES = 16;
+
+  private BackendLinkCompression() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Picks the mode to use for the connection to a backend.
+   *
+   * @param request the contents of the login plugin message the backend sent
+   * @param backendAddress the address of the backend
+   * @return the mode to use, or {@code -1} if none of the modes the backend supports should be
+   *         used or the request is malformed
+   */
+  public static int chooseMode(ByteBuf request, SocketAddress backendAddress) {
+    boolean uncompressed = false;
+    boolean stream = false;
+    try {
+      int count = ProtocolUtils.readVarInt(request);
+      if (count < 0 || count > MAX_MODES) {
+        return -1;
+      }
+
+      for (int i = 0; i < count; i++) {
+        int mode = ProtocolUtils.readVarInt(request);
+        uncompressed |= mode == MODE_UNCOMPRESSED;
+        stream |= mode == MODE_STREAM;
+      }
+    } catch (DecoderException e) {
+      // Declining a malformed request still leaves the backend with regular compression.
+      return -1;
+    }
+
+    if (uncompressed && isLoopback(backendAddress)) {
+      return MODE_UNCOMPRESSED;
+    }
+    return stream ? MODE_STREAM : -1;
+  }
+
+  private static boolean isLoopback(SocketAddress address) {
+    if (address instanceof DomainSocketAddress) {
+      return true;
+    }
+    if (!(address instanceof InetSocketAddress inetAddress)) {
+      return false;
+    }
+    InetAddress resolved = inetAddress.getAddress();
+    return resolved != null && resolved.isLoopbackAddress();
+  }
+}
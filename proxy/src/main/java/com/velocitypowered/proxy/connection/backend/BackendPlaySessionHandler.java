@@ -21,6 +21,7 @@ import static com.velocitypowered.proxy.connection.backend.BungeeCordMessageResp
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.mojang.brigadier.tree.RootCommandNode;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.event.command.PlayerAvailableCommandsEvent;
@@ -44,6 +45,7 @@ import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.connection.player.resourcepack.VelocityResourcePackInfo;
 import com.velocitypowered.proxy.connection.player.resourcepack.handler.ResourcePackHandler;
 import com.velocitypowered.proxy.connection.util.ConnectionMessages;
+import com.velocitypowered.proxy.protocol.CompressedFrame;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
@@ -74,10 +76,13 @@ import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.handler.timeout.ReadTimeoutException;
 import java.net.InetSocketAddress;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import net.kyori.adventure.key.Key;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Handles a connected player.
@@ -90,6 +95,34 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
       Boolean.getBoolean("velocity.log-server-backpressure");
   private static final int MAXIMUM_PACKETS_TO_FLUSH =
       Integer.getInteger("velocity.max-packets-per-flush", 8192);
+  private static final boolean PLAY_PACKET_PASSTHROUGH =
+      Boolean.getBoolean("velocity.play-packet-passthrough");
+
+  // Packets this handler inspects, rewrites or consumes. Every other packet is forwarded to the
+  // player unchanged, so when passthrough is enabled it does not need to be decoded at all.
+  private static final Set<Class<? extends MinecraftPacket>> INSPECTED_PACKETS =
+      ImmutableSet.<Class<? extends MinecraftPacket>>of(
+          AvailableCommandsPacket.class,
+          BossBarPacket.class,
+          BundleDelimiterPacket.class,
+          ClientSettingsPacket.class,
+          ClientboundCookieRequestPacket.class,
+          ClientboundStoreCookiePacket.class,
+          DisconnectPacket.class,
+          KeepAlivePacket.class,
+          LegacyPlayerListItemPacket.class,
+          PluginMessagePacket.class,
+          RemovePlayerInfoPacket.class,
+          RemoveResourcePackPacket.class,
+          ResourcePackRequestPacket.class,
+          ServerDataPacket.class,
+          StartUpdatePacket.class,
+          TabCompleteResponsePacket.class,
+          TransferPacket.class,
+          UpsertPlayerInfoPacket.class
+      );
+  private static final Predicate<Class<? extends MinecraftPacket>> PASSTHROUGH_FILTER =
+      packetClass -> !INSPECTED_PACKETS.contains(packetClass);
 
   private final VelocityServer server;
   private final VelocityServerConnection serverConn;
@@ -126,6 +159,12 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
       ));
     }
 
+    if (PLAY_PACKET_PASSTHROUGH && playerConnection.isCompressionEnabled()) {
+      // The player's compression encoder can write compressed frames as-is, so packets we pass
+      // through don't need to be inflated only to be deflated again.
+      serverMc.enableCompressedPassthrough();
+    }
+
   }
 
   @Override
@@ -319,7 +358,7 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
                 packet.getChannel(), Unpooled.wrappedBuffer(copy));
         playerConnection.write(copied);
       }
-    }, playerConnection.eventLoop()).exceptionally((ex) -> {
+    }, playerConnection.inlineEventLoop()).exceptionally((ex) -> {
       logger.error("Exception while handling plugin message {}", packet, ex);
       return null;
     });
@@ -362,7 +401,8 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
 
     server.getEventManager().fire(
             new PlayerAvailableCommandsEvent(serverConn.getPlayer(), rootNode))
-        .thenAcceptAsync(event -> playerConnection.write(commands), playerConnection.eventLoop())
+        .thenAcceptAsync(event -> playerConnection.write(commands),
+            playerConnection.inlineEventLoop())
         .exceptionally((ex) -> {
           logger.error("Exception while handling available commands for {}", playerConnection, ex);
           return null;
@@ -453,6 +493,11 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
     }
   }
 
+  @Override
+  public @Nullable Predicate<Class<? extends MinecraftPacket>> getPassthroughFilter() {
+    return PLAY_PACKET_PASSTHROUGH ? PASSTHROUGH_FILTER : null;
+  }
+
   @Override
   public void handleUnknown(ByteBuf buf) {
     playerConnection.delayedWrite(buf.retain());
@@ -462,6 +507,15 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
     }
   }
 
+  @Override
+  public void handleCompressed(CompressedFrame frame) {
+    playerConnection.delayedWrite(frame.retain());
+    if (++packetsFlushed >= MAXIMUM_PACKETS_TO_FLUSH) {
+      playerConnection.flush();
+      packetsFlushed = 0;
+    }
+  }
+
   @Override
   public void readCompleted() {
     playerConnection.flush();
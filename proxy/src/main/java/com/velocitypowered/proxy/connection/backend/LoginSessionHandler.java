@@ -32,6 +32,7 @@ import com.velocitypowered.proxy.connection.client.ClientPlaySessionHandler;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.connection.util.ConnectionRequestResults;
 import com.velocitypowered.proxy.connection.util.ConnectionRequestResults.Impl;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.packet.ClientboundCookieRequestPacket;
 import com.velocitypowered.proxy.protocol.packet.ClientboundStoreCookiePacket;
@@ -46,6 +47,7 @@ import com.velocitypowered.proxy.util.except.QuietRuntimeException;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.unix.DomainSocketAddress;
 import java.util.concurrent.CompletableFuture;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
@@ -66,6 +68,7 @@ public class LoginSessionHandler implements MinecraftSessionHandler {
   private final VelocityServerConnection serverConn;
   private final CompletableFuture<Impl> resultFuture;
   private boolean informationForwarded;
+  private int linkCompressionMode = -1;
 
   LoginSessionHandler(VelocityServer server, VelocityServerConnection serverConn,
       CompletableFuture<Impl> resultFuture) {
@@ -83,7 +86,25 @@ public class LoginSessionHandler implements MinecraftSessionHandler {
   public boolean handle(LoginPluginMessagePacket packet) {
     MinecraftConnection mc = serverConn.ensureConnected();
     VelocityConfiguration configuration = server.getConfiguration();
-    if (configuration.getPlayerInfoForwardingMode() == PlayerInfoForwarding.MODERN
+    // Links over unix domain sockets are always local, so they may always negotiate to turn
+    // compression off.
+    if ((configuration.isBackendLinkCompression()
+        || mc.getRemoteAddress() instanceof DomainSocketAddress)
+        && packet.getChannel().equals(BackendLinkCompression.CHANNEL)) {
+      int mode = BackendLinkCompression.chooseMode(packet.content(), mc.getRemoteAddress());
+      if (mode == -1) {
+        mc.write(new LoginPluginResponsePacket(packet.getId(), false, Unpooled.EMPTY_BUFFER));
+        return true;
+      }
+
+      ByteBuf data = Unpooled.buffer(1);
+      ProtocolUtils.writeVarInt(data, mode);
+      mc.write(new LoginPluginResponsePacket(packet.getId(), true, data));
+      if (mode == BackendLinkCompression.MODE_STREAM) {
+        mc.enableOutboundStreamCompression();
+      }
+      linkCompressionMode = mode;
+    } else if (configuration.getPlayerInfoForwardingMode() == PlayerInfoForwarding.MODERN
         && packet.getChannel().equals(PlayerDataForwarding.CHANNEL)) {
 
       int requestedForwardingVersion = PlayerDataForwarding.MODERN_DEFAULT;
@@ -137,7 +158,12 @@ public class LoginSessionHandler implements MinecraftSessionHandler {
 
   @Override
   public boolean handle(SetCompressionPacket packet) {
-    serverConn.ensureConnected().setCompressionThreshold(packet.getThreshold());
+    MinecraftConnection mc = serverConn.ensureConnected();
+    if (linkCompressionMode == BackendLinkCompression.MODE_STREAM) {
+      mc.enableInboundStreamCompression();
+    } else if (linkCompressionMode != BackendLinkCompression.MODE_UNCOMPRESSED) {
+      mc.setCompressionThreshold(packet.getThreshold());
+    }
     return true;
   }
 
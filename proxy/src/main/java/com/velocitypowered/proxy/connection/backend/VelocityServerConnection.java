@@ -39,6 +39,7 @@ import com.velocitypowered.proxy.connection.PlayerDataForwarding;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.connection.forge.modern.ModernForgeConnectionType;
 import com.velocitypowered.proxy.connection.util.ConnectionRequestResults.Impl;
+import com.velocitypowered.proxy.metrics.ProxyMetrics;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.packet.HandshakePacket;
 import com.velocitypowered.proxy.protocol.packet.JoinGamePacket;
@@ -48,6 +49,7 @@ import com.velocitypowered.proxy.protocol.util.ByteBufDataOutput;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import java.util.HashMap;
 import java.util.Map;
@@ -96,37 +98,66 @@ public class VelocityServerConnection implements MinecraftConnectionAssociation,
    */
   public CompletableFuture<Impl> connect() {
     CompletableFuture<Impl> result = new CompletableFuture<>();
+    if (ProxyMetrics.isEnabled()) {
+      long startNanos = System.nanoTime();
+      result.whenComplete((status, throwable) -> ProxyMetrics.recordBackendConnect(
+          registeredServer.getServerInfo().getName(), System.nanoTime() - startNanos,
+          throwable == null));
+    }
+    // Pooled connections run on the player's event loop, just like fresh ones.
+    Channel pooled = registeredServer.claimPooledConnection(
+        proxyPlayer.getConnection().eventLoop());
+    if (pooled != null) {
+      pooled.eventLoop().execute(() -> {
+        // The server may have closed the connection while it sat in the pool.
+        if (pooled.isActive()) {
+          beginLogin(pooled, result);
+        } else {
+          connectFresh(result);
+        }
+      });
+    } else {
+      connectFresh(result);
+    }
+    return result;
+  }
+
+  private void connectFresh(CompletableFuture<Impl> result) {
     // Note: we use the event loop for the connection the player is on. This reduces context
     // switches.
-    server.createBootstrap(proxyPlayer.getConnection().eventLoop())
+    server.createBootstrap(proxyPlayer.getConnection().eventLoop(),
+            registeredServer.getServerInfo())
         .handler(server.getBackendChannelInitializer())
-        .connect(registeredServer.getServerInfo().getAddress())
+        .connect()
         .addListener((ChannelFutureListener) future -> {
           if (future.isSuccess()) {
-            connection = new MinecraftConnection(future.channel(), server);
-            connection.setAssociation(VelocityServerConnection.this);
-            future.channel().pipeline().addLast(HANDLER, connection);
-
-            // Kick off the connection process
-            if (!connection.setActiveSessionHandler(StateRegistry.HANDSHAKE)) {
-              MinecraftSessionHandler handler =
-                  new LoginSessionHandler(server, VelocityServerConnection.this, result);
-              connection.setActiveSessionHandler(StateRegistry.HANDSHAKE, handler);
-              connection.addSessionHandler(StateRegistry.LOGIN, handler);
-            }
-
-            // Set the connection phase, which may, for future forge (or whatever), be
-            // determined
-            // at this point already
-            connectionPhase = connection.getType().getInitialBackendPhase();
-            startHandshake();
+            beginLogin(future.channel(), result);
           } else {
             // Complete the result immediately. ConnectedPlayer will reset the in-flight
             // connection.
             result.completeExceptionally(future.cause());
           }
         });
-    return result;
+  }
+
+  private void beginLogin(Channel channel, CompletableFuture<Impl> result) {
+    connection = new MinecraftConnection(channel, server);
+    connection.setAssociation(VelocityServerConnection.this);
+    channel.pipeline().addLast(HANDLER, connection);
+
+    // Kick off the connection process
+    if (!connection.setActiveSessionHandler(StateRegistry.HANDSHAKE)) {
+      MinecraftSessionHandler handler =
+          new LoginSessionHandler(server, VelocityServerConnection.this, result);
+      connection.setActiveSessionHandler(StateRegistry.HANDSHAKE, handler);
+      connection.addSessionHandler(StateRegistry.LOGIN, handler);
+    }
+
+    // Set the connection phase, which may, for future forge (or whatever), be
+    // determined
+    // at this point already
+    connectionPhase = connection.getType().getInitialBackendPhase();
+    startHandshake();
   }
 
   String getPlayerRemoteAddressAsString() {
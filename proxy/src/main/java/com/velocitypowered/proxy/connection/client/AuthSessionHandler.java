@@ -39,12 +39,14 @@ import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
 import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
 import com.velocitypowered.proxy.crypto.IdentifiedKeyImpl;
+import com.velocitypowered.proxy.metrics.ProxyMetrics;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.packet.LoginAcknowledgedPacket;
 import com.velocitypowered.proxy.protocol.packet.ServerLoginSuccessPacket;
 import com.velocitypowered.proxy.protocol.packet.ServerboundCookieResponsePacket;
 import com.velocitypowered.proxy.protocol.packet.SetCompressionPacket;
 import io.netty.buffer.ByteBuf;
+import java.net.InetAddress;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -69,6 +71,7 @@ public class AuthSessionHandler implements MinecraftSessionHandler {
   private @MonotonicNonNull ConnectedPlayer connectedPlayer;
   private final boolean onlineMode;
   private State loginState = State.START; // 1.20.2+
+  private long activatedNanos;
 
   AuthSessionHandler(VelocityServer server, LoginInboundConnection inbound,
       GameProfile profile, boolean onlineMode) {
@@ -81,6 +84,7 @@ public class AuthSessionHandler implements MinecraftSessionHandler {
 
   @Override
   public void activated() {
+    activatedNanos = System.nanoTime();
     // Some connection types may need to alter the game profile.
     profile = mcConnection.getType().addGameProfileTokensIfRequired(profile,
         server.getConfiguration().getPlayerInfoForwardingMode());
@@ -133,9 +137,13 @@ public class AuthSessionHandler implements MinecraftSessionHandler {
 
   private void startLoginCompletion(ConnectedPlayer player) {
     int threshold = server.getConfiguration().getCompressionThreshold();
-    if (threshold >= 0 && mcConnection.getProtocolVersion().noLessThan(MINECRAFT_1_8)) {
+    if (threshold >= 0 && mcConnection.getProtocolVersion().noLessThan(MINECRAFT_1_8)
+        && !skipCompression(player)) {
       mcConnection.write(new SetCompressionPacket(threshold));
       mcConnection.setCompressionThreshold(threshold);
+      if (server.getConfiguration().isAdaptiveCompressionEnabled()) {
+        mcConnection.enableAdaptiveCompression();
+      }
     }
     VelocityConfiguration configuration = server.getConfiguration();
     UUID playerUniqueId = player.getUniqueId();
@@ -208,6 +216,20 @@ public class AuthSessionHandler implements MinecraftSessionHandler {
     return true;
   }
 
+  /**
+   * Determines whether the connection of the {@code player} should be left uncompressed, because
+   * it comes from this machine or the local network and bandwidth is not a concern.
+   */
+  private boolean skipCompression(ConnectedPlayer player) {
+    VelocityConfiguration configuration = server.getConfiguration();
+    if (!configuration.isAdaptiveCompressionEnabled() || !configuration.isSkipLocalCompression()) {
+      return false;
+    }
+    InetAddress address = player.getRemoteAddress().getAddress();
+    return address != null && (address.isLoopbackAddress() || address.isSiteLocalAddress()
+        || address.isLinkLocalAddress());
+  }
+
   private void completeLoginProtocolPhaseAndInitialize(ConnectedPlayer player) {
     mcConnection.setAssociation(player);
 
@@ -253,20 +275,25 @@ public class AuthSessionHandler implements MinecraftSessionHandler {
   }
 
   private CompletableFuture<Void> connectToInitialServer(ConnectedPlayer player) {
-    Optional<RegisteredServer> initialFromConfig = player.getNextServerToTry();
-    PlayerChooseInitialServerEvent event =
-        new PlayerChooseInitialServerEvent(player, initialFromConfig.orElse(null));
+    if (ProxyMetrics.isEnabled()) {
+      ProxyMetrics.recordLoginPhase(ProxyMetrics.LoginPhase.LOGIN,
+          System.nanoTime() - activatedNanos);
+    }
+    return player.findNextServerToTry().thenCompose(initialFromConfig -> {
+      PlayerChooseInitialServerEvent event =
+          new PlayerChooseInitialServerEvent(player, initialFromConfig.orElse(null));
 
-    return server.getEventManager().fire(event).thenRunAsync(() -> {
-      Optional<RegisteredServer> toTry = event.getInitialServer();
-      if (toTry.isEmpty()) {
-        player.disconnect0(
-            Component.translatable("velocity.error.no-available-servers", NamedTextColor.RED),
-            true);
-        return;
-      }
-      player.createConnectionRequest(toTry.get()).fireAndForget();
-    }, mcConnection.eventLoop());
+      return server.getEventManager().fire(event).thenRunAsync(() -> {
+        Optional<RegisteredServer> toTry = event.getInitialServer();
+        if (toTry.isEmpty()) {
+          player.disconnect0(
+              Component.translatable("velocity.error.no-available-servers", NamedTextColor.RED),
+              true);
+          return;
+        }
+        player.createConnectionRequest(toTry.get()).fireAndForget();
+      }, mcConnection.eventLoop());
+    });
   }
 
   @Override
@@ -372,7 +372,7 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
                   backendConn.write(message);
                 }
               }
-            }, backendConn.eventLoop()).exceptionally((ex) -> {
+            }, backendConn.inlineEventLoop()).exceptionally((ex) -> {
               logger.error("Exception while handling plugin message packet for {}", player, ex);
               return null;
             });
@@ -53,6 +53,7 @@ import com.velocitypowered.api.proxy.messages.PluginMessageEncoder;
 import com.velocitypowered.api.proxy.player.PlayerSettings;
 import com.velocitypowered.api.proxy.player.ResourcePackInfo;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
 import com.velocitypowered.api.util.GameProfile;
 import com.velocitypowered.api.util.ModInfo;
 import com.velocitypowered.api.util.ServerLink;
@@ -66,7 +67,9 @@ import com.velocitypowered.proxy.connection.player.resourcepack.VelocityResource
 import com.velocitypowered.proxy.connection.player.resourcepack.handler.ResourcePackHandler;
 import com.velocitypowered.proxy.connection.util.ConnectionMessages;
 import com.velocitypowered.proxy.connection.util.ConnectionRequestResults.Impl;
+import com.velocitypowered.proxy.connection.util.ServerReachabilityProbe;
 import com.velocitypowered.proxy.connection.util.VelocityInboundConnection;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
 import com.velocitypowered.proxy.protocol.packet.BundleDelimiterPacket;
@@ -101,6 +104,7 @@ import com.velocitypowered.proxy.util.TranslatableMapper;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -111,6 +115,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import net.kyori.adventure.audience.MessageType;
@@ -172,6 +177,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
   private final VelocityServer server;
   private ClientConnectionPhase connectionPhase;
   private final CompletableFuture<Void> teardownFuture = new CompletableFuture<>();
+  private final Set<ScheduledTask> boundTasks = ConcurrentHashMap.newKeySet();
   private @MonotonicNonNull List<String> serversToTry = null;
   private final ResourcePackHandler resourcePackHandler;
   private final BundleDelimiterHandler bundleHandler = new BundleDelimiterHandler(this);
@@ -204,7 +210,8 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
     this.onlineMode = onlineMode;
 
     if (connection.getProtocolVersion().noLessThan(ProtocolVersion.MINECRAFT_1_19_3)) {
-      this.tabList = new VelocityTabList(this);
+      this.tabList = new VelocityTabList(this,
+          server.getConfiguration().isBatchTabListUpdates());
     } else if (connection.getProtocolVersion().noLessThan(ProtocolVersion.MINECRAFT_1_8)) {
       this.tabList = new KeyedVelocityTabList(this, server);
     } else {
@@ -384,9 +391,17 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
    * @return the translated message
    */
   public Component translateMessage(Component message) {
-    Locale locale = ClosestLocaleMatcher.INSTANCE
+    return GlobalTranslator.render(message, getTranslationLocale());
+  }
+
+  /**
+   * Returns the locale messages sent to this player are translated into.
+   *
+   * @return the closest supported locale to the player's effective locale
+   */
+  Locale getTranslationLocale() {
+    return ClosestLocaleMatcher.INSTANCE
         .lookupClosest(getEffectiveLocale() == null ? Locale.getDefault() : getEffectiveLocale());
-    return GlobalTranslator.render(message, locale);
   }
 
   @Override
@@ -413,15 +428,23 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
 
   @Override
   public void sendActionBar(net.kyori.adventure.text.@NonNull Component message) {
-    Component translated = translateMessage(message);
+    connection.write(createActionBarPacket(translateMessage(message)));
+  }
 
+  /**
+   * Creates the packet showing an already translated message in this player's action bar.
+   *
+   * @param translated the translated message
+   * @return the packet to send
+   */
+  MinecraftPacket createActionBarPacket(Component translated) {
     ProtocolVersion playerVersion = getProtocolVersion();
     if (playerVersion.noLessThan(ProtocolVersion.MINECRAFT_1_11)) {
       // Use the title packet instead.
       GenericTitlePacket pkt = GenericTitlePacket.constructTitlePacket(
           GenericTitlePacket.ActionType.SET_ACTION_BAR, playerVersion);
       pkt.setComponent(new ComponentHolder(playerVersion, translated));
-      connection.write(pkt);
+      return pkt;
     } else {
       // Due to issues with action bar packets, we'll need to convert the text message into a
       // legacy message and then inject the legacy text into a component... yuck!
@@ -431,7 +454,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
       LegacyChatPacket legacyChat = new LegacyChatPacket();
       legacyChat.setMessage(object.toString());
       legacyChat.setType(LegacyChatPacket.GAME_INFO_TYPE);
-      connection.write(legacyChat);
+      return legacyChat;
     }
   }
 
@@ -740,21 +763,35 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
     }
 
     boolean kickedFromCurrent = connectedServer == null || connectedServer.getServer().equals(rs);
-    ServerKickResult result;
     if (kickedFromCurrent) {
-      Optional<RegisteredServer> next = getNextServerToTry(rs);
-      result =
-          next.map(RedirectPlayer::create).orElseGet(() -> DisconnectPlayer.create(friendlyReason));
+      if (server.getConfiguration().getParallelConnectCandidates() <= 1) {
+        // Nothing is probed, so the kick is handled right away like it always has been.
+        handleKickedFromCurrent(rs, getNextServerToTry(rs), kickReason, friendlyReason);
+        return;
+      }
+      findNextServerToTry(rs).exceptionally(ex -> {
+        logger.error("{}: unable to find another server to connect to", this, ex);
+        return Optional.empty();
+      }).thenAcceptAsync(next -> handleKickedFromCurrent(rs, next, kickReason, friendlyReason),
+          connection.eventLoop());
     } else {
       // If we were kicked by going to another server, the connection should not be in flight
       if (connectionInFlight != null && connectionInFlight.getServer().equals(rs)) {
         resetInFlightConnection();
       }
-      result = Notify.create(friendlyReason);
+      KickedFromServerEvent originalEvent = new KickedFromServerEvent(this, rs, kickReason,
+          true, Notify.create(friendlyReason));
+      handleKickEvent(originalEvent, friendlyReason, false);
     }
+  }
+
+  private void handleKickedFromCurrent(RegisteredServer rs, Optional<RegisteredServer> next,
+                                      @Nullable Component kickReason, Component friendlyReason) {
+    ServerKickResult result = next.<ServerKickResult>map(RedirectPlayer::create)
+        .orElseGet(() -> DisconnectPlayer.create(friendlyReason));
     KickedFromServerEvent originalEvent = new KickedFromServerEvent(this, rs, kickReason,
-        !kickedFromCurrent, result);
-    handleKickEvent(originalEvent, friendlyReason, kickedFromCurrent);
+        false, result);
+    handleKickEvent(originalEvent, friendlyReason, true);
   }
 
   private void handleKickEvent(KickedFromServerEvent originalEvent, Component friendlyReason,
@@ -853,6 +890,62 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
    * @return the next server to try
    */
   private Optional<RegisteredServer> getNextServerToTry(@Nullable RegisteredServer current) {
+    int index = nextCandidateIndex(current, tryIndex);
+    if (index == -1) {
+      return Optional.empty();
+    }
+    tryIndex = index;
+    return server.getServer(serversToTry.get(index));
+  }
+
+  /**
+   * Finds another server to attempt to log into, like {@link #getNextServerToTry()}. If the proxy
+   * is configured to check several candidates in parallel, candidates that cannot currently be
+   * connected to are skipped.
+   *
+   * @return the next server to try
+   */
+  public CompletableFuture<Optional<RegisteredServer>> findNextServerToTry() {
+    return this.findNextServerToTry(null);
+  }
+
+  private CompletableFuture<Optional<RegisteredServer>> findNextServerToTry(
+      @Nullable RegisteredServer current) {
+    int maxCandidates = server.getConfiguration().getParallelConnectCandidates();
+    if (maxCandidates <= 1) {
+      return completedFuture(getNextServerToTry(current));
+    }
+
+    List<Integer> indices = new ArrayList<>(maxCandidates);
+    List<RegisteredServer> candidates = new ArrayList<>(maxCandidates);
+    int index = nextCandidateIndex(current, tryIndex);
+    while (index != -1 && candidates.size() < maxCandidates) {
+      Optional<RegisteredServer> candidate = server.getServer(serversToTry.get(index));
+      if (candidate.isEmpty()) {
+        // The sequential lookup gives up at an unregistered server, so stop there as well.
+        break;
+      }
+      indices.add(index);
+      candidates.add(candidate.get());
+      index = nextCandidateIndex(current, index + 1);
+    }
+
+    if (candidates.size() <= 1) {
+      return completedFuture(getNextServerToTry(current));
+    }
+
+    return ServerReachabilityProbe.firstReachable(server, candidates, connection.eventLoop())
+        .thenComposeAsync(reachable -> {
+          if (reachable == -1) {
+            tryIndex = indices.get(indices.size() - 1) + 1;
+            return findNextServerToTry(current);
+          }
+          tryIndex = indices.get(reachable);
+          return completedFuture(Optional.of(candidates.get(reachable)));
+        }, connection.eventLoop());
+  }
+
+  private int nextCandidateIndex(@Nullable RegisteredServer current, int from) {
     if (serversToTry == null) {
       String virtualHostStr = getVirtualHost().map(InetSocketAddress::getHostString)
           .orElse("")
@@ -864,24 +957,22 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
     if (serversToTry.isEmpty()) {
       List<String> connOrder = server.getConfiguration().getAttemptConnectionOrder();
       if (connOrder.isEmpty()) {
-        return Optional.empty();
+        return -1;
       } else {
         serversToTry = connOrder;
       }
     }
 
-    for (int i = tryIndex; i < serversToTry.size(); i++) {
+    for (int i = from; i < serversToTry.size(); i++) {
       String toTryName = serversToTry.get(i);
       if ((connectedServer != null && hasSameName(connectedServer.getServer(), toTryName))
           || (connectionInFlight != null && hasSameName(connectionInFlight.getServer(), toTryName))
           || (current != null && hasSameName(current, toTryName))) {
         continue;
       }
-
-      tryIndex = i;
-      return server.getServer(toTryName);
+      return i;
     }
-    return Optional.empty();
+    return -1;
   }
 
   private static boolean hasSameName(RegisteredServer server, String name) {
@@ -921,6 +1012,9 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
   }
 
   void teardown() {
+    for (ScheduledTask task : boundTasks) {
+      task.cancel();
+    }
     if (connectionInFlight != null) {
       connectionInFlight.disconnect();
     }
@@ -958,6 +1052,25 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player,
     return teardownFuture;
   }
 
+  /**
+   * Ties a task running on this player's event loop to the player, so that it is cancelled once
+   * the player disconnects. If the player has already disconnected, the task is cancelled right
+   * away.
+   *
+   * @param task the task to bind
+   */
+  public void bindTask(ScheduledTask task) {
+    boundTasks.add(task);
+    // The task may have been added after the player was torn down.
+    if (!isActive()) {
+      task.cancel();
+    }
+  }
+
+  public void unbindTask(ScheduledTask task) {
+    boundTasks.remove(task);
+  }
+
   @Override
   public String toString() {
     final boolean isPlayerAddressLoggingEnabled = server.getConfiguration()
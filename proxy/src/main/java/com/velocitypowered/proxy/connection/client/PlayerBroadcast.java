@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.client;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.natives.compression.VelocityCompressor;
+import com.velocitypowered.natives.util.MoreByteBufUtils;
+import com.velocitypowered.natives.util.Natives;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.protocol.CompressedFrame;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import net.kyori.adventure.identity.Identity;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.translation.GlobalTranslator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Sends the same message to many players at once. Players are grouped by protocol version and
+ * locale, and the packet for each group is translated, encoded and, if needed, compressed only
+ * once. The resulting buffer is then shared by every connection in the group, which only has to
+ * frame and encrypt it.
+ */
+public final class PlayerBroadcast {
+
+  private static final Logger logger = LogManager.getLogger(PlayerBroadcast.class);
+
+  private PlayerBroadcast() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Sends a system chat message to all the {@code players}.
+   *
+   * @param server the proxy
+   * @param players the players to send the message to
+   * @param identity the identity of the sender
+   * @param message the message to send
+   */
+  public static void sendMessage(VelocityServer server, Iterable<? extends Player> players,
+      Identity identity, Component message) {
+    broadcast(server, players, message,
+        (player, translated) -> player.getChatBuilderFactory().builder()
+            .component(translated).forIdentity(identity).toClient(),
+        player -> player.sendMessage(identity, message));
+  }
+
+  /**
+   * Shows a message in the action bar of all the {@code players}.
+   *
+   * @param server the proxy
+   * @param players the players to send the message to
+   * @param message the message to show
+   */
+  public static void sendActionBar(VelocityServer server, Iterable<? extends Player> players,
+      Component message) {
+    broadcast(server, players, message, ConnectedPlayer::createActionBarPacket,
+        player -> player.sendActionBar(message));
+  }
+
+  private static void broadcast(VelocityServer server, Iterable<? extends Player> players,
+      Component message, BiFunction<ConnectedPlayer, Component, MinecraftPacket> packetFactory,
+      Consumer<Player> fallback) {
+    Map<GroupKey, List<ConnectedPlayer>> groups = new HashMap<>();
+    for (Player player : players) {
+      if (player instanceof ConnectedPlayer connectedPlayer) {
+        GroupKey key = new GroupKey(connectedPlayer.getProtocolVersion(),
+            connectedPlayer.getTranslationLocale());
+        groups.computeIfAbsent(key, k -> new ArrayList<>()).add(connectedPlayer);
+      } else {
+        fallback.accept(player);
+      }
+    }
+
+    for (Map.Entry<GroupKey, List<ConnectedPlayer>> entry : groups.entrySet()) {
+      List<ConnectedPlayer> group = entry.getValue();
+      Component translated = GlobalTranslator.render(message, entry.getKey().locale());
+      MinecraftPacket packet = packetFactory.apply(group.get(0), translated);
+      if (group.size() == 1) {
+        group.get(0).getConnection().write(packet);
+        continue;
+      }
+
+      SharedPacket shared;
+      try {
+        shared = SharedPacket.encode(server, entry.getKey().version(), packet);
+      } catch (Exception e) {
+        logger.error("Unable to pre-encode {}, sending it to each player separately", packet, e);
+        for (ConnectedPlayer player : group) {
+          player.getConnection().write(packet);
+        }
+        continue;
+      }
+
+      try {
+        for (ConnectedPlayer player : group) {
+          shared.writeTo(player.getConnection());
+        }
+      } finally {
+        shared.release();
+      }
+    }
+  }
+
+  private record GroupKey(ProtocolVersion version, Locale locale) {
+  }
+
+  /**
+   * A packet encoded once, to be written to many connections in the {@link StateRegistry#PLAY}
+   * state. Connections receive read-only views of the encoded data, so that it is not encrypted in
+   * place.
+   */
+  private static final class SharedPacket {
+
+    private final MinecraftPacket packet;
+    private final ByteBuf encoded;
+    private final @Nullable ByteBuf compressed;
+
+    private SharedPacket(MinecraftPacket packet, ByteBuf encoded, @Nullable ByteBuf compressed) {
+      this.packet = packet;
+      this.encoded = encoded;
+      this.compressed = compressed;
+    }
+
+    static SharedPacket encode(VelocityServer server, ProtocolVersion version,
+        MinecraftPacket packet) throws Exception {
+      StateRegistry.PacketRegistry.ProtocolRegistry registry = StateRegistry.PLAY
+          .getProtocolRegistry(ProtocolUtils.Direction.CLIENTBOUND, version);
+      ByteBuf encoded = ByteBufAllocator.DEFAULT.directBuffer();
+      ByteBuf compressed = null;
+      try {
+        ProtocolUtils.writeVarInt(encoded, registry.getPacketId(packet));
+        packet.encode(encoded, ProtocolUtils.Direction.CLIENTBOUND, version);
+
+        int threshold = server.getConfiguration().getCompressionThreshold();
+        if (threshold >= 0 && encoded.readableBytes() >= threshold) {
+          compressed = compress(server, encoded);
+        }
+      } catch (Exception e) {
+        encoded.release();
+        throw e;
+      }
+      return new SharedPacket(packet, encoded, compressed);
+    }
+
+    private static ByteBuf compress(VelocityServer server, ByteBuf encoded) throws Exception {
+      VelocityCompressor compressor = Natives.compress.get()
+          .create(server.getConfiguration().getCompressionLevel());
+      ByteBuf compatibleIn = MoreByteBufUtils.ensureCompatible(ByteBufAllocator.DEFAULT,
+          compressor, encoded);
+      ByteBuf out = MoreByteBufUtils.preferredBuffer(ByteBufAllocator.DEFAULT, compressor,
+          encoded.readableBytes());
+      try {
+        compressor.deflate(compatibleIn, out);
+        return out;
+      } catch (Exception e) {
+        out.release();
+        throw e;
+      } finally {
+        compatibleIn.release();
+        compressor.close();
+        encoded.readerIndex(0);
+      }
+    }
+
+    void writeTo(MinecraftConnection connection) {
+      Object msg;
+      if (compressed != null && connection.isCompressionEnabled()) {
+        msg = new CompressedFrame(encoded.readableBytes(), compressed.retain().asReadOnly());
+      } else {
+        msg = encoded.retain().asReadOnly();
+      }
+
+      EventLoop eventLoop = connection.eventLoop();
+      if (eventLoop.inEventLoop()) {
+        write(connection, msg);
+      } else {
+        eventLoop.execute(() -> write(connection, msg));
+      }
+    }
+
+    private void write(MinecraftConnection connection, Object msg) {
+      // The connection may have left the play state (to reconfigure, for instance) since the packet
+      // was encoded, in which case it needs to be encoded for the new state.
+      if (connection.getState() == StateRegistry.PLAY) {
+        connection.write(msg);
+      } else {
+        ReferenceCountUtil.release(msg);
+        connection.write(packet);
+      }
+    }
+
+    void release() {
+      encoded.release();
+      if (compressed != null) {
+        compressed.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.util;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.server.PingOptions;
+import com.velocitypowered.api.proxy.server.ServerPing;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Caches the responses of backend servers to the pings made for ping passthrough, so that a burst
+ * of server list pings doesn't turn into as many connections to the backends. Concurrent pings of
+ * the same server share a single backend ping, and entries that keep being used are refreshed in
+ * the background before they expire. Failures are cached as well, so that a server that is down
+ * isn't hammered either.
+ */
+final class BackendPingCache {
+
+  private static final int MAX_ENTRIES = 1024;
+
+  private final long ttlMillis;
+  private final AsyncLoadingCache<Key, Result> cache;
+
+  BackendPingCache(long ttlMillis) {
+    this.ttlMillis = ttlMillis;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(MAX_ENTRIES)
+        .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+        .refreshAfterWrite(Math.max(1, ttlMillis / 2), TimeUnit.MILLISECONDS)
+        .buildAsync((key, executor) -> key.server()
+            .ping(null, PingOptions.builder().version(key.version()).build())
+            .handle(Result::new));
+  }
+
+  long getTtlMillis() {
+    return ttlMillis;
+  }
+
+  /**
+   * Pings the {@code server}, or reuses a recent response to a ping claiming the same protocol
+   * version.
+   *
+   * @param server the server to ping
+   * @param version the protocol version to claim
+   * @return the ping response
+   */
+  CompletableFuture<ServerPing> ping(VelocityRegisteredServer server, ProtocolVersion version) {
+    return cache.get(new Key(server, version)).thenCompose(result -> result.error() == null
+        ? CompletableFuture.completedFuture(result.ping())
+        : CompletableFuture.failedFuture(result.error()));
+  }
+
+  private record Key(VelocityRegisteredServer server, ProtocolVersion version) {
+  }
+
+  private record Result(@Nullable ServerPing ping, @Nullable Throwable error) {
+  }
+}
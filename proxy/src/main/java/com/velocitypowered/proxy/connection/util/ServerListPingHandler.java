@@ -28,12 +28,14 @@ import com.velocitypowered.proxy.VelocityServer;
 import com.velocitypowered.proxy.config.PingPassthroughMode;
 import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import io.netty.channel.EventLoop;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Common utilities for handling server list ping results.
@@ -41,11 +43,40 @@ import java.util.concurrent.CompletableFuture;
 public class ServerListPingHandler {
 
   private final VelocityServer server;
+  private volatile @Nullable BackendPingCache pingCache;
 
   public ServerListPingHandler(VelocityServer server) {
     this.server = server;
   }
 
+  private BackendPingCache getPingCache(long ttlMillis) {
+    BackendPingCache cache = this.pingCache;
+    if (cache == null || cache.getTtlMillis() != ttlMillis) {
+      // Created on first use, and again whenever a configuration reload changes the TTL.
+      cache = new BackendPingCache(ttlMillis);
+      this.pingCache = cache;
+    }
+    return cache;
+  }
+
+  /**
+   * Pings a backend server for ping passthrough, reusing recent responses unless the ping
+   * passthrough cache is disabled.
+   *
+   * @param target the server to ping
+   * @param loop the event loop to ping the server from if the cache is disabled
+   * @param version the protocol version to claim
+   * @return the ping response
+   */
+  CompletableFuture<ServerPing> pingBackend(VelocityRegisteredServer target,
+      @Nullable EventLoop loop, ProtocolVersion version) {
+    long cacheTtl = server.getConfiguration().getPingPassthroughCacheTtl();
+    if (cacheTtl > 0) {
+      return getPingCache(cacheTtl).ping(target, version);
+    }
+    return target.ping(loop, PingOptions.builder().version(version).build());
+  }
+
   private ServerPing constructLocalPing(ProtocolVersion version) {
     if (version == ProtocolVersion.UNKNOWN) {
       version = ProtocolVersion.MAXIMUM_VERSION;
@@ -71,9 +102,8 @@ public class ServerListPingHandler {
       if (rs.isEmpty()) {
         continue;
       }
-      VelocityRegisteredServer vrs = (VelocityRegisteredServer) rs.get();
-      pings.add(vrs.ping(connection.getConnection().eventLoop(), PingOptions.builder()
-              .version(responseProtocolVersion).build()));
+      pings.add(pingBackend((VelocityRegisteredServer) rs.get(),
+          connection.getConnection().eventLoop(), responseProtocolVersion));
     }
     if (pings.isEmpty()) {
       return CompletableFuture.completedFuture(fallback);
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.util;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.proxy.VelocityServer;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoop;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Checks which of several servers can currently be reached by opening connections to all of them
+ * at once, so that servers that are down cost at most one connection timeout in total rather than
+ * one each. Only the connection itself is established; it is closed right away, without any
+ * Minecraft handshake taking place.
+ */
+public final class ServerReachabilityProbe {
+
+  private static final byte PENDING = 0;
+  private static final byte REACHABLE = 1;
+  private static final byte UNREACHABLE = 2;
+
+  private ServerReachabilityProbe() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Finds the first of the {@code candidates}, in order, that can be connected to. The result is
+   * known as soon as a candidate is reachable and all candidates before it are not, at which point
+   * the remaining connection attempts are abandoned.
+   *
+   * @param server the proxy
+   * @param candidates the servers to check, in order of preference
+   * @param loop the event loop to connect from, or {@code null} to use any
+   * @return the index of the first reachable candidate, or {@code -1} if none are reachable
+   */
+  public static CompletableFuture<Integer> firstReachable(VelocityServer server,
+      List<RegisteredServer> candidates, @Nullable EventLoop loop) {
+    CompletableFuture<Integer> result = new CompletableFuture<>();
+    byte[] outcomes = new byte[candidates.size()];
+    ChannelFuture[] attempts = new ChannelFuture[candidates.size()];
+    for (int i = 0; i < candidates.size(); i++) {
+      final int index = i;
+      attempts[i] = server.createBootstrap(loop, candidates.get(i).getServerInfo())
+          .handler(new ChannelInboundHandlerAdapter())
+          .connect()
+          .addListener((ChannelFutureListener) future -> {
+            if (future.isSuccess()) {
+              future.channel().close();
+            }
+            synchronized (outcomes) {
+              outcomes[index] = future.isSuccess() ? REACHABLE : UNREACHABLE;
+              decide(outcomes, result);
+            }
+          });
+    }
+
+    result.whenComplete((index, ex) -> {
+      for (ChannelFuture attempt : attempts) {
+        if (!attempt.isDone()) {
+          attempt.channel().close();
+        }
+      }
+    });
+    return result;
+  }
+
+  private static void decide(byte[] outcomes, CompletableFuture<Integer> result) {
+    for (int i = 0; i < outcomes.length; i++) {
+      if (outcomes[i] == PENDING) {
+        // A preferred candidate may still turn out to be reachable.
+        return;
+      }
+      if (outcomes[i] == REACHABLE) {
+        result.complete(i);
+        return;
+      }
+    }
+    result.complete(-1);
+  }
+}
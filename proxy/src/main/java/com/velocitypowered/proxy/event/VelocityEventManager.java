@@ -37,6 +37,7 @@ import com.velocitypowered.api.plugin.PluginManager;
 import com.velocitypowered.proxy.event.UntargetedEventHandler.EventTaskHandler;
 import com.velocitypowered.proxy.event.UntargetedEventHandler.VoidHandler;
 import com.velocitypowered.proxy.event.UntargetedEventHandler.WithContinuationHandler;
+import com.velocitypowered.proxy.metrics.ProxyMetrics;
 import com.velocitypowered.proxy.util.collect.Enum2IntMap;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
@@ -98,8 +99,12 @@ public class VelocityEventManager implements EventManager {
 
   private final ListMultimap<Class<?>, HandlerRegistration> handlersByType =
       ArrayListMultimap.create();
-  private final LoadingCache<Class<?>, HandlersCache> handlersCache =
-      Caffeine.newBuilder().build(this::bakeHandlers);
+  private final ClassValue<HandlersSlot> handlersSlots = new ClassValue<>() {
+    @Override
+    protected HandlersSlot computeValue(final Class<?> type) {
+      return new HandlersSlot();
+    }
+  };
 
   private final LoadingCache<Method, UntargetedEventHandler> untargetedMethodHandlers =
       Caffeine.newBuilder().weakValues().build(this::buildUntargetedMethodHandler);
@@ -187,21 +192,51 @@ public class VelocityEventManager implements EventManager {
     }
   }
 
-  private @Nullable HandlersCache bakeHandlers(final Class<?> eventType) {
-    final List<HandlerRegistration> baked = new ArrayList<>();
-    final Collection<Class<?>> types = eventTypeTracker.getFriendsOf(eventType);
+  /**
+   * Holds the baked handlers of a single event type. Registering or unregistering handlers clears
+   * the slots of all affected event types while holding the write lock, and they are baked again
+   * on the next lookup, so firing an event only needs a volatile read once its handlers are baked.
+   */
+  static final class HandlersSlot {
 
-    lock.readLock().lock();
-    try {
-      for (final Class<?> type : types) {
-        baked.addAll(handlersByType.get(type));
+    volatile @Nullable HandlersCache handlers;
+  }
+
+  private HandlersCache getHandlers(final Class<?> eventType) {
+    final HandlersSlot slot = handlersSlots.get(eventType);
+    HandlersCache handlers = slot.handlers;
+    if (handlers == null) {
+      lock.readLock().lock();
+      try {
+        handlers = slot.handlers;
+        if (handlers == null) {
+          handlers = bakeHandlers(eventType);
+          slot.handlers = handlers;
+        }
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+    return handlers;
+  }
+
+  private void invalidateHandlers(final Collection<HandlerRegistration> registrations) {
+    // Invalidate all the affected event subtypes
+    for (final HandlerRegistration registration : registrations) {
+      for (final Class<?> type : eventTypeTracker.getFriendsOf(registration.eventType)) {
+        handlersSlots.get(type).handlers = null;
       }
-    } finally {
-      lock.readLock().unlock();
+    }
+  }
+
+  private HandlersCache bakeHandlers(final Class<?> eventType) {
+    final List<HandlerRegistration> baked = new ArrayList<>();
+    for (final Class<?> type : eventTypeTracker.getFriendsOf(eventType)) {
+      baked.addAll(handlersByType.get(type));
     }
 
     if (baked.isEmpty()) {
-      return null;
+      return new HandlersCache(AsyncType.NEVER, new HandlerRegistration[0]);
     }
 
     baked.sort(handlerComparator);
@@ -372,14 +407,10 @@ public class VelocityEventManager implements EventManager {
       for (final HandlerRegistration registration : registrations) {
         handlersByType.put(registration.eventType, registration);
       }
+      invalidateHandlers(registrations);
     } finally {
       lock.writeLock().unlock();
     }
-    // Invalidate all the affected event subtypes
-    handlersCache.invalidateAll(registrations.stream()
-        .flatMap(registration -> eventTypeTracker.getFriendsOf(registration.eventType).stream())
-        .distinct()
-        .collect(Collectors.toList()));
   }
 
   @Override
@@ -485,15 +516,10 @@ public class VelocityEventManager implements EventManager {
           removed.add(registration);
         }
       }
+      invalidateHandlers(removed);
     } finally {
       lock.writeLock().unlock();
     }
-
-    // Invalidate all the affected event subtypes
-    handlersCache.invalidateAll(removed.stream()
-        .flatMap(registration -> eventTypeTracker.getFriendsOf(registration.eventType).stream())
-        .distinct()
-        .collect(Collectors.toList()));
   }
 
   /**
@@ -505,34 +531,42 @@ public class VelocityEventManager implements EventManager {
    */
   public boolean hasSubscribers(final Class<?> eventClass) {
     requireNonNull(eventClass, "eventClass");
-    final HandlersCache handlersCache = this.handlersCache.get(eventClass);
-    return handlersCache != null && handlersCache.handlers.length > 0;
+    return getHandlers(eventClass).handlers.length > 0;
   }
 
   @Override
   public void fireAndForget(final Object event) {
     requireNonNull(event, "event");
-    final HandlersCache handlersCache = this.handlersCache.get(event.getClass());
-    if (handlersCache == null || handlersCache.handlers.length == 0) {
+    final HandlersCache handlersCache = getHandlers(event.getClass());
+    if (handlersCache.handlers.length == 0) {
       // Optimization: nobody's listening.
       return;
     }
-    fire(null, event, handlersCache);
+    fire(ProxyMetrics.isEnabled() ? timedFuture(event) : null, event, handlersCache);
   }
 
   @Override
   public <E> CompletableFuture<E> fire(final E event) {
     requireNonNull(event, "event");
-    final HandlersCache handlersCache = this.handlersCache.get(event.getClass());
-    if (handlersCache == null || handlersCache.handlers.length == 0) {
+    final HandlersCache handlersCache = getHandlers(event.getClass());
+    if (handlersCache.handlers.length == 0) {
       // Optimization: nobody's listening.
       return CompletableFuture.completedFuture(event);
     }
-    final CompletableFuture<E> future = new CompletableFuture<>();
+    final CompletableFuture<E> future = ProxyMetrics.isEnabled()
+        ? timedFuture(event) : new CompletableFuture<>();
     fire(future, event, handlersCache);
     return future;
   }
 
+  private static <E> CompletableFuture<E> timedFuture(final E event) {
+    final CompletableFuture<E> future = new CompletableFuture<>();
+    final long startNanos = System.nanoTime();
+    future.thenRun(() -> ProxyMetrics.recordEventDispatch(event.getClass(),
+        System.nanoTime() - startNanos));
+    return future;
+  }
+
   private <E> void fire(final @Nullable CompletableFuture<E> future,
       final E event, final HandlersCache handlersCache) {
     final HandlerRegistration registration = handlersCache.handlers[0];
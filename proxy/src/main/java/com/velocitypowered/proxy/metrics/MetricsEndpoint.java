@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.plugin.loader.VirtualThreadExecutors;
+import com.velocitypowered.proxy.plugin.loader.VirtualThreadExecutors.PinnedCarrierStats;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Serves the proxy's metrics over HTTP in the Prometheus text exposition format, at
+ * {@code /metrics}. Scrapes are handled on a dedicated thread, away from the event loops.
+ */
+public final class MetricsEndpoint {
+
+  private static final Logger logger = LogManager.getLogger(MetricsEndpoint.class);
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final VelocityServer server;
+  private final HttpServer httpServer;
+  private final ExecutorService executor;
+
+  private MetricsEndpoint(VelocityServer server, HttpServer httpServer, ExecutorService executor) {
+    this.server = server;
+    this.httpServer = httpServer;
+    this.executor = executor;
+  }
+
+  /**
+   * Starts serving metrics on the {@code address} and enables recording them.
+   *
+   * @param server the proxy
+   * @param address the address to listen on
+   * @return the endpoint
+   * @throws IOException if the address can't be bound
+   */
+  public static MetricsEndpoint start(VelocityServer server, InetSocketAddress address)
+      throws IOException {
+    HttpServer httpServer = HttpServer.create(address, 0);
+    ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "Velocity Metrics Endpoint");
+      thread.setDaemon(true);
+      return thread;
+    });
+    MetricsEndpoint endpoint = new MetricsEndpoint(server, httpServer, executor);
+    httpServer.createContext("/metrics", endpoint::handle);
+    httpServer.setExecutor(executor);
+    httpServer.start();
+    ProxyMetrics.setEnabled(true);
+    logger.info("Serving metrics on http://{}:{}/metrics", address.getHostString(),
+        httpServer.getAddress().getPort());
+    return endpoint;
+  }
+
+  /**
+   * Stops serving metrics and stops recording them.
+   */
+  public void stop() {
+    ProxyMetrics.setEnabled(false);
+    httpServer.stop(0);
+    executor.shutdown();
+    try {
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!exchange.getRequestMethod().equals("GET")) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+
+      byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+
+  private String scrape() {
+    MetricsWriter out = new MetricsWriter();
+    out.type("velocity_players", "gauge", "Players connected to the proxy.");
+    out.sample("velocity_players", "", server.getPlayerCount());
+
+    out.type("velocity_server_players", "gauge", "Players connected to each server.");
+    for (RegisteredServer registered : server.getAllServers()) {
+      out.sample("velocity_server_players",
+          "server=\"" + MetricsWriter.escape(registered.getServerInfo().getName()) + "\"",
+          registered.getPlayersConnected().size());
+    }
+
+    out.type("velocity_scheduler_tasks", "gauge",
+        "Tasks scheduled by plugins that have not finished or been cancelled yet.");
+    out.sample("velocity_scheduler_tasks", "", server.getScheduler().getScheduledTaskCount());
+
+    Map<String, PinnedCarrierStats> pinned = VirtualThreadExecutors.getPinnedCarrierStats();
+    out.type("velocity_plugin_pinned_carrier_total", "counter",
+        "Times a plugin's virtual threads blocked while pinned to their carrier thread.");
+    for (Map.Entry<String, PinnedCarrierStats> entry : pinned.entrySet()) {
+      out.sample("velocity_plugin_pinned_carrier_total",
+          "plugin=\"" + MetricsWriter.escape(entry.getKey()) + "\"",
+          entry.getValue().getPinnedEvents());
+    }
+    out.type("velocity_plugin_pinned_carrier_seconds_total", "counter",
+        "Time a plugin's virtual threads spent blocked while pinned to their carrier thread.");
+    for (Map.Entry<String, PinnedCarrierStats> entry : pinned.entrySet()) {
+      out.sample("velocity_plugin_pinned_carrier_seconds_total",
+          "plugin=\"" + MetricsWriter.escape(entry.getKey()) + "\"",
+          (double) entry.getValue().getPinnedNanos() / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    ProxyMetrics.write(out);
+    return out.toString();
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.metrics;
+
+/**
+ * Writes metrics in the Prometheus text exposition format.
+ */
+public final class MetricsWriter {
+
+  private final StringBuilder out = new StringBuilder();
+
+  /**
+   * Writes the type and description of a metric. Must come before the metric's samples.
+   *
+   * @param name the name of the metric
+   * @param type the type of the metric, such as {@code counter} or {@code gauge}
+   * @param help a description of the metric
+   */
+  public void type(String name, String type, String help) {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  /**
+   * Writes a sample of a metric.
+   *
+   * @param name the name of the metric
+   * @param labels the labels of the sample, such as {@code state="play"}, or an empty string
+   * @param value the value
+   */
+  public void sample(String name, String labels, long value) {
+    appendName(name, labels).append(value).append('\n');
+  }
+
+  /**
+   * Writes a sample of a metric.
+   *
+   * @param name the name of the metric
+   * @param labels the labels of the sample, such as {@code state="play"}, or an empty string
+   * @param value the value
+   */
+  public void sample(String name, String labels, double value) {
+    appendName(name, labels).append(value).append('\n');
+  }
+
+  void timer(String name, String labels, ProxyMetrics.Timer timer) {
+    sample(name + "_count", labels, timer.getCount());
+    sample(name + "_sum", labels, timer.getSeconds());
+  }
+
+  void summary(String name, String help, String labels, ProxyMetrics.Timer timer) {
+    type(name, "summary", help);
+    timer(name, labels, timer);
+  }
+
+  private StringBuilder appendName(String name, String labels) {
+    out.append(name);
+    if (!labels.isEmpty()) {
+      out.append('{').append(labels).append('}');
+    }
+    return out.append(' ');
+  }
+
+  /**
+   * Escapes a label value.
+   *
+   * @param value the value to escape
+   * @return the escaped value
+   */
+  public static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  @Override
+  public String toString() {
+    return out.toString();
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.metrics;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the proxy's throughput and latencies, exported by the
+ * {@link MetricsEndpoint}. Recording is cheap enough for the networking hot paths: the counters
+ * are striped {@link LongAdder}s, and nothing is allocated once a label has been seen. Callers
+ * should still check {@link #isEnabled()} first, so that disabled metrics don't cost the
+ * {@link System#nanoTime()} calls around timed operations either.
+ */
+public final class ProxyMetrics {
+
+  private static final StateRegistry[] STATES = StateRegistry.values();
+  private static final ProtocolUtils.Direction[] DIRECTIONS = ProtocolUtils.Direction.values();
+
+  private static volatile boolean enabled;
+
+  private static final LongAdder[] packetsReceived = newAdders(STATES.length * DIRECTIONS.length);
+  private static final LongAdder[] bytesReceived = newAdders(STATES.length * DIRECTIONS.length);
+  private static final LongAdder[] packetsEncoded = newAdders(STATES.length * DIRECTIONS.length);
+  private static final LongAdder[] bytesEncoded = newAdders(STATES.length * DIRECTIONS.length);
+
+  private static final Timer compression = new Timer();
+  private static final LongAdder compressionBytesIn = new LongAdder();
+  private static final LongAdder compressionBytesOut = new LongAdder();
+  private static final Timer encryption = new Timer();
+  private static final Timer decryption = new Timer();
+
+  private static final Map<Class<?>, Timer> eventDispatch = new ConcurrentHashMap<>();
+  private static final Timer[] loginPhases = new Timer[LoginPhase.values().length];
+  private static final Map<String, Timer> backendConnects = new ConcurrentHashMap<>();
+  private static final Map<String, LongAdder> backendConnectFailures = new ConcurrentHashMap<>();
+
+  static {
+    for (int i = 0; i < loginPhases.length; i++) {
+      loginPhases[i] = new Timer();
+    }
+  }
+
+  private ProxyMetrics() {
+    throw new AssertionError();
+  }
+
+  /**
+   * A phase of a player's login, timed separately.
+   */
+  public enum LoginPhase {
+    /**
+     * From the login start packet until the proxy has decided whether to authenticate the player.
+     */
+    PRE_LOGIN,
+    /**
+     * The request to the session server that authenticates an online-mode player.
+     */
+    AUTHENTICATION,
+    /**
+     * From the authenticated profile until the proxy starts connecting the player to a server.
+     */
+    LOGIN
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  static void setEnabled(boolean enabled) {
+    ProxyMetrics.enabled = enabled;
+  }
+
+  /**
+   * Records a packet read from a connection, before it is decoded.
+   *
+   * @param state the state of the connection
+   * @param direction the direction the packet travels in
+   * @param bytes the size of the packet, uncompressed
+   */
+  public static void recordReceived(StateRegistry state, ProtocolUtils.Direction direction,
+      int bytes) {
+    int index = state.ordinal() * DIRECTIONS.length + direction.ordinal();
+    packetsReceived[index].increment();
+    bytesReceived[index].add(bytes);
+  }
+
+  /**
+   * Records a packet encoded by the proxy itself.
+   *
+   * @param state the state of the connection
+   * @param direction the direction the packet travels in
+   * @param bytes the size of the packet, uncompressed
+   */
+  public static void recordEncoded(StateRegistry state, ProtocolUtils.Direction direction,
+      int bytes) {
+    int index = state.ordinal() * DIRECTIONS.length + direction.ordinal();
+    packetsEncoded[index].increment();
+    bytesEncoded[index].add(bytes);
+  }
+
+  /**
+   * Records a packet being compressed.
+   *
+   * @param uncompressed the size of the packet before compression
+   * @param compressed the size of the packet after compression
+   * @param nanos the time taken to compress the packet
+   */
+  public static void recordCompression(int uncompressed, int compressed, long nanos) {
+    compression.record(nanos);
+    compressionBytesIn.add(uncompressed);
+    compressionBytesOut.add(compressed);
+  }
+
+  /**
+   * Records data being encrypted or decrypted.
+   *
+   * @param encrypt {@code true} if the data was encrypted, {@code false} if decrypted
+   * @param nanos the time taken
+   */
+  public static void recordCipher(boolean encrypt, long nanos) {
+    (encrypt ? encryption : decryption).record(nanos);
+  }
+
+  /**
+   * Records an event having been passed to all of its handlers.
+   *
+   * @param eventType the type of the event
+   * @param nanos the time from firing the event until the last handler finished
+   */
+  public static void recordEventDispatch(Class<?> eventType, long nanos) {
+    Timer timer = eventDispatch.get(eventType);
+    if (timer == null) {
+      timer = eventDispatch.computeIfAbsent(eventType, type -> new Timer());
+    }
+    timer.record(nanos);
+  }
+
+  /**
+   * Records a phase of a player's login.
+   *
+   * @param phase the phase
+   * @param nanos the time the phase took
+   */
+  public static void recordLoginPhase(LoginPhase phase, long nanos) {
+    loginPhases[phase.ordinal()].record(nanos);
+  }
+
+  /**
+   * Records a connection attempt to a backend server, from connecting until the player is logged
+   * in or the attempt failed.
+   *
+   * @param server the name of the server
+   * @param nanos the time the attempt took
+   * @param success whether the attempt finished without an exception
+   */
+  public static void recordBackendConnect(String server, long nanos, boolean success) {
+    if (success) {
+      backendConnects.computeIfAbsent(server, name -> new Timer()).record(nanos);
+    } else {
+      backendConnectFailures.computeIfAbsent(server, name -> new LongAdder()).increment();
+    }
+  }
+
+  /**
+   * Writes all counters in the Prometheus text exposition format.
+   *
+   * @param out the output to append to
+   */
+  public static void write(MetricsWriter out) {
+    out.type("velocity_packets_received_total", "counter",
+        "Packets read from connections, including packets forwarded without being decoded.");
+    out.type("velocity_packet_bytes_received_total", "counter",
+        "Uncompressed bytes of packets read from connections.");
+    out.type("velocity_packets_encoded_total", "counter",
+        "Packets encoded by the proxy itself.");
+    out.type("velocity_packet_bytes_encoded_total", "counter",
+        "Uncompressed bytes of packets encoded by the proxy itself.");
+    for (StateRegistry state : STATES) {
+      for (ProtocolUtils.Direction direction : DIRECTIONS) {
+        int index = state.ordinal() * DIRECTIONS.length + direction.ordinal();
+        String labels = "state=\"" + lower(state) + "\",direction=\"" + lower(direction) + "\"";
+        out.sample("velocity_packets_received_total", labels, packetsReceived[index].sum());
+        out.sample("velocity_packet_bytes_received_total", labels, bytesReceived[index].sum());
+        out.sample("velocity_packets_encoded_total", labels, packetsEncoded[index].sum());
+        out.sample("velocity_packet_bytes_encoded_total", labels, bytesEncoded[index].sum());
+      }
+    }
+
+    out.summary("velocity_compression_seconds", "Time spent compressing packets.", "",
+        compression);
+    out.type("velocity_compression_bytes_in_total", "counter",
+        "Bytes of packets before compression.");
+    out.sample("velocity_compression_bytes_in_total", "", compressionBytesIn.sum());
+    out.type("velocity_compression_bytes_out_total", "counter",
+        "Bytes of packets after compression.");
+    out.sample("velocity_compression_bytes_out_total", "", compressionBytesOut.sum());
+
+    out.type("velocity_cipher_seconds", "summary", "Time spent encrypting and decrypting.");
+    out.timer("velocity_cipher_seconds", "operation=\"encrypt\"", encryption);
+    out.timer("velocity_cipher_seconds", "operation=\"decrypt\"", decryption);
+
+    out.type("velocity_event_dispatch_seconds", "summary",
+        "Time from firing an event until its last handler finished.");
+    for (Map.Entry<Class<?>, Timer> entry : eventDispatch.entrySet()) {
+      out.timer("velocity_event_dispatch_seconds",
+          "event=\"" + MetricsWriter.escape(entry.getKey().getName()) + "\"", entry.getValue());
+    }
+
+    out.type("velocity_login_phase_seconds", "summary", "Time taken by each phase of logins.");
+    for (LoginPhase phase : LoginPhase.values()) {
+      out.timer("velocity_login_phase_seconds", "phase=\"" + lower(phase) + "\"",
+          loginPhases[phase.ordinal()]);
+    }
+
+    out.type("velocity_backend_connect_seconds", "summary",
+        "Time from connecting to a server until the player is logged in to it.");
+    for (Map.Entry<String, Timer> entry : backendConnects.entrySet()) {
+      out.timer("velocity_backend_connect_seconds",
+          "server=\"" + MetricsWriter.escape(entry.getKey()) + "\"", entry.getValue());
+    }
+    out.type("velocity_backend_connect_failures_total", "counter",
+        "Connection attempts to servers that failed.");
+    for (Map.Entry<String, LongAdder> entry : backendConnectFailures.entrySet()) {
+      out.sample("velocity_backend_connect_failures_total",
+          "server=\"" + MetricsWriter.escape(entry.getKey()) + "\"", entry.getValue().sum());
+    }
+  }
+
+  private static String lower(Enum<?> value) {
+    return value.name().toLowerCase(Locale.ROOT);
+  }
+
+  private static LongAdder[] newAdders(int count) {
+    LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  /**
+   * Counts how often something happened, and how long it took in total.
+   */
+  static final class Timer {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    void record(long nanos) {
+      this.count.increment();
+      this.nanos.add(nanos);
+    }
+
+    long getCount() {
+      return count.sum();
+    }
+
+    double getSeconds() {
+      return (double) nanos.sum() / TimeUnit.SECONDS.toNanos(1);
+    }
+  }
+}
@@ -32,9 +32,10 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.WriteBufferWaterMark;
+import io.netty.incubator.channel.uring.IOUring;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import java.net.InetSocketAddress;
-import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
@@ -48,6 +49,8 @@ public final class ConnectionManager {
 
   private static final WriteBufferWaterMark SERVER_WRITE_MARK = new WriteBufferWaterMark(1 << 20,
       1 << 21);
+  // Enough to keep a few HTTP/2 connections busy without overwhelming the session server.
+  private static final int MAX_CONCURRENT_HTTP_REQUESTS = 256;
   private static final Logger LOGGER = LogManager.getLogger(ConnectionManager.class);
   private final Map<InetSocketAddress, Endpoint> endpoints = new HashMap<>();
   private final TransportType transportType;
@@ -62,6 +65,7 @@ public final class ConnectionManager {
   public final BackendChannelInitializerHolder backendChannelInitializer;
 
   private final SeparatePoolInetNameResolver resolver;
+  private @Nullable SharedHttpClient httpClient;
 
   /**
    * Initializes the {@code ConnectionManager}.
@@ -83,6 +87,10 @@ public final class ConnectionManager {
   public void logChannelInformation() {
     LOGGER.info("Connections will use {} channels, {} compression, {} ciphers", this.transportType,
         Natives.compress.getLoadedVariant(), Natives.cipher.getLoadedVariant());
+    if (this.transportType != TransportType.IO_URING && TransportType.isIoUringRequested()) {
+      LOGGER.warn("io_uring was requested, but is not available on this system",
+          IOUring.unavailabilityCause());
+    }
   }
 
   /**
@@ -175,6 +183,21 @@ public final class ConnectionManager {
     return bootstrap;
   }
 
+  /**
+   * Creates a bootstrap for connecting to a unix domain socket. Connecting will fail if the
+   * transport in use does not support them.
+   *
+   * @param group the event loop group to use, or {@code null} to use the worker group
+   * @return the bootstrap
+   */
+  public Bootstrap createDomainSocketWorker(@Nullable EventLoopGroup group) {
+    return new Bootstrap()
+        .channelFactory(this.transportType.domainSocketChannelFactory)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+            this.server.getConfiguration().getConnectTimeout())
+        .group(group == null ? this.workerGroup : group);
+  }
+
   /**
    * Closes the specified {@code oldBind} endpoint.
    *
@@ -230,6 +253,12 @@ public final class ConnectionManager {
     this.closeEndpoints(true);
 
     this.resolver.shutdown();
+
+    synchronized (this) {
+      if (this.httpClient != null) {
+        this.httpClient.close();
+      }
+    }
   }
 
   public EventLoopGroup getBossGroup() {
@@ -240,11 +269,18 @@ public final class ConnectionManager {
     return this.serverChannelInitializer;
   }
 
-  @SuppressWarnings("checkstyle:MissingJavadocMethod")
-  public HttpClient createHttpClient() {
-    return HttpClient.newBuilder()
-            .executor(this.workerGroup)
-            .build();
+  /**
+   * Returns the HTTP client shared by the proxy, creating it if needed.
+   *
+   * @return the shared HTTP client
+   */
+  public synchronized SharedHttpClient getHttpClient() {
+    if (this.httpClient == null) {
+      this.httpClient = new SharedHttpClient(this.workerGroup,
+          Duration.ofMillis(server.getConfiguration().getConnectTimeout()),
+          MAX_CONCURRENT_HTTP_REQUESTS);
+    }
+    return this.httpClient;
   }
 
   public BackendChannelInitializerHolder getBackendChannelInitializer() {
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.network;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An HTTP client shared by everything in the proxy that talks to web services, such as the
+ * session server queried for every online-mode login. Reusing one client keeps its connections
+ * (and their TLS sessions) alive between requests, and HTTP/2 lets concurrent requests share a
+ * single connection. The number of requests in flight at once is bounded; further requests wait
+ * for a slot.
+ */
+public final class SharedHttpClient {
+
+  private static final Logger logger = LogManager.getLogger(SharedHttpClient.class);
+
+  private final HttpClient client;
+  private final int maxConcurrentRequests;
+  private final Queue<Runnable> waiting = new ArrayDeque<>();
+  private int running;
+
+  /**
+   * Creates a new shared HTTP client.
+   *
+   * @param executor the executor that runs the client's tasks
+   * @param connectTimeout how long to wait for a connection to be established
+   * @param maxConcurrentRequests how many requests may be in flight at once
+   */
+  public SharedHttpClient(Executor executor, Duration connectTimeout, int maxConcurrentRequests) {
+    this.client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(connectTimeout)
+        .executor(executor)
+        .build();
+    this.maxConcurrentRequests = maxConcurrentRequests;
+  }
+
+  /**
+   * Sends the {@code request} once there is a free slot.
+   *
+   * @param request the request to send
+   * @param bodyHandler the handler for the response body
+   * @param <T> the type of the response body
+   * @return the response
+   */
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+      HttpResponse.BodyHandler<T> bodyHandler) {
+    CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+    Runnable send = () -> {
+      try {
+        client.sendAsync(request, bodyHandler).whenComplete((response, throwable) -> {
+          release();
+          if (throwable != null) {
+            result.completeExceptionally(throwable);
+          } else {
+            result.complete(response);
+          }
+        });
+      } catch (RuntimeException e) {
+        release();
+        result.completeExceptionally(e);
+      }
+    };
+
+    synchronized (this) {
+      if (running >= maxConcurrentRequests) {
+        waiting.add(send);
+        return result;
+      }
+      running++;
+    }
+    send.run();
+    return result;
+  }
+
+  private void release() {
+    Runnable next;
+    synchronized (this) {
+      next = waiting.poll();
+      if (next == null) {
+        running--;
+        return;
+      }
+    }
+    // The slot is handed straight to the next waiting request.
+    next.run();
+  }
+
+  /**
+   * Closes the client, abandoning any requests still in flight.
+   */
+  public void close() {
+    if (client instanceof final AutoCloseable closeable) {
+      try {
+        closeable.close();
+      } catch (Exception e) {
+        // In Java 21, the HttpClient does not throw any Exception
+        // when trying to clean its resources, so this should not happen
+        logger.error("An unknown error occurred while trying to close an HttpClient", e);
+      }
+    }
+  }
+}
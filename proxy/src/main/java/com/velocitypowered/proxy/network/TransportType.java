@@ -18,15 +18,18 @@
 package com.velocitypowered.proxy.network;
 
 import com.velocitypowered.proxy.util.concurrent.VelocityNettyThreadFactory;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFactory;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.epoll.Epoll;
 import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollDomainSocketChannel;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.kqueue.KQueue;
 import io.netty.channel.kqueue.KQueueDatagramChannel;
+import io.netty.channel.kqueue.KQueueDomainSocketChannel;
 import io.netty.channel.kqueue.KQueueEventLoopGroup;
 import io.netty.channel.kqueue.KQueueServerSocketChannel;
 import io.netty.channel.kqueue.KQueueSocketChannel;
@@ -37,6 +40,11 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringDatagramChannel;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringServerSocketChannel;
+import io.netty.incubator.channel.uring.IOUringSocketChannel;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.BiFunction;
 
@@ -46,31 +54,50 @@ import java.util.function.BiFunction;
 public enum TransportType {
   NIO("NIO", NioServerSocketChannel::new,
       NioSocketChannel::new,
+      TransportType::unsupportedDomainSocket,
       NioDatagramChannel::new,
       (name, type) -> new NioEventLoopGroup(0, createThreadFactory(name, type))),
   EPOLL("epoll", EpollServerSocketChannel::new,
       EpollSocketChannel::new,
+      EpollDomainSocketChannel::new,
       EpollDatagramChannel::new,
       (name, type) -> new EpollEventLoopGroup(0, createThreadFactory(name, type))),
   KQUEUE("kqueue", KQueueServerSocketChannel::new,
       KQueueSocketChannel::new,
+      KQueueDomainSocketChannel::new,
       KQueueDatagramChannel::new,
-      (name, type) -> new KQueueEventLoopGroup(0, createThreadFactory(name, type)));
+      (name, type) -> new KQueueEventLoopGroup(0, createThreadFactory(name, type))),
+  IO_URING("io_uring", IOUringServerSocketChannel::new,
+      IOUringSocketChannel::new,
+      TransportType::unsupportedDomainSocket,
+      IOUringDatagramChannel::new,
+      (name, type) -> new IOUringEventLoopGroup(0, createThreadFactory(name, type)));
+
+  private static final String IO_URING_PROPERTY = "velocity.io-uring-transport";
+
+  /**
+   * Explains how to connect to unix domain sockets when the transport in use can't.
+   */
+  public static final String DOMAIN_SOCKETS_UNSUPPORTED = "Connecting to unix domain sockets "
+      + "requires the epoll or kqueue transport.";
 
   final String name;
   final ChannelFactory<? extends ServerSocketChannel> serverSocketChannelFactory;
   final ChannelFactory<? extends SocketChannel> socketChannelFactory;
+  final ChannelFactory<? extends Channel> domainSocketChannelFactory;
   final ChannelFactory<? extends DatagramChannel> datagramChannelFactory;
   final BiFunction<String, Type, EventLoopGroup> eventLoopGroupFactory;
 
   TransportType(final String name,
       final ChannelFactory<? extends ServerSocketChannel> serverSocketChannelFactory,
       final ChannelFactory<? extends SocketChannel> socketChannelFactory,
+      final ChannelFactory<? extends Channel> domainSocketChannelFactory,
       final ChannelFactory<? extends DatagramChannel> datagramChannelFactory,
       final BiFunction<String, Type, EventLoopGroup> eventLoopGroupFactory) {
     this.name = name;
     this.serverSocketChannelFactory = serverSocketChannelFactory;
     this.socketChannelFactory = socketChannelFactory;
+    this.domainSocketChannelFactory = domainSocketChannelFactory;
     this.datagramChannelFactory = datagramChannelFactory;
     this.eventLoopGroupFactory = eventLoopGroupFactory;
   }
@@ -84,6 +111,21 @@ public enum TransportType {
     return this.eventLoopGroupFactory.apply(this.name, type);
   }
 
+  /**
+   * Returns whether this transport can connect to unix domain sockets.
+   *
+   * @return whether unix domain sockets are supported
+   */
+  public boolean supportsDomainSockets() {
+    return this == EPOLL || this == KQUEUE;
+  }
+
+  // Configured servers are validated up front, but plugins may still register servers this
+  // transport can't connect to, in which case the connection attempt fails.
+  private static Channel unsupportedDomainSocket() {
+    throw new UnsupportedOperationException(DOMAIN_SOCKETS_UNSUPPORTED);
+  }
+
   private static ThreadFactory createThreadFactory(final String name, final Type type) {
     return new VelocityNettyThreadFactory("Netty " + name + ' ' + type.toString() + " #%d");
   }
@@ -98,6 +140,11 @@ public enum TransportType {
       return NIO;
     }
 
+    // io_uring is still incubating, so it is only used when explicitly requested.
+    if (isIoUringRequested() && IOUring.isAvailable()) {
+      return IO_URING;
+    }
+
     if (Epoll.isAvailable()) {
       return EPOLL;
     }
@@ -109,6 +156,17 @@ public enum TransportType {
     return NIO;
   }
 
+  /**
+   * Determines whether io_uring has been explicitly requested with
+   * {@code -Dvelocity.io-uring-transport=true}.
+   *
+   * @return whether io_uring was requested
+   */
+  public static boolean isIoUringRequested() {
+    return !Boolean.getBoolean("velocity.disable-native-transport")
+        && Boolean.getBoolean(IO_URING_PROPERTY);
+  }
+
   /**
    * Event loop group types.
    */
@@ -57,14 +57,19 @@ public class VelocityPluginContainer implements PluginContainer {
       synchronized (this) {
         if (this.service == null) {
           String name = this.description.getName().orElse(this.description.getId());
-          this.service = Executors.unconfigurableExecutorService(
-              Executors.newCachedThreadPool(
-                new ThreadFactoryBuilder().setDaemon(true)
-                    .setNameFormat(name + " - Task Executor #%d")
-                    .setDaemon(true)
-                    .build()
-              )
-          );
+          if (VirtualThreadExecutors.isEnabled()) {
+            this.service = Executors.unconfigurableExecutorService(VirtualThreadExecutors.create(
+                this.description.getId(), name + " - Virtual Task Executor #"));
+          } else {
+            this.service = Executors.unconfigurableExecutorService(
+                Executors.newCachedThreadPool(
+                  new ThreadFactoryBuilder().setDaemon(true)
+                      .setNameFormat(name + " - Task Executor #%d")
+                      .setDaemon(true)
+                      .build()
+                )
+            );
+          }
         }
       }
     }
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.plugin.loader;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Creates plugin executors that run every task on its own virtual thread, if enabled using the
+ * {@code velocity.virtual-thread-plugin-executors} system property and supported by the Java
+ * runtime. Velocity itself targets Java 17, so virtual threads are only reached reflectively.
+ *
+ * <p>A virtual thread that blocks while pinned to its carrier thread, for instance inside a
+ * {@code synchronized} block, blocks the carrier with it. Such events are recorded through JFR and
+ * counted per plugin, and the first one of every plugin is logged.
+ */
+public final class VirtualThreadExecutors {
+
+  private static final Logger logger = LogManager.getLogger(VirtualThreadExecutors.class);
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+
+  private static final @Nullable MethodHandle NEW_EXECUTOR = findExecutorFactory();
+  private static final boolean ENABLED = enabled();
+
+  private static final Map<String, PinnedCarrierStats> pinnedStats = new ConcurrentHashMap<>();
+  private static @Nullable RecordingStream pinnedEvents;
+
+  private VirtualThreadExecutors() {
+    throw new AssertionError();
+  }
+
+  private static @Nullable MethodHandle findExecutorFactory() {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Class<?> virtualBuilderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+      MethodHandle ofVirtual = lookup.findStatic(Thread.class, "ofVirtual",
+          MethodType.methodType(virtualBuilderClass));
+      MethodHandle name = lookup.findVirtual(virtualBuilderClass, "name",
+          MethodType.methodType(virtualBuilderClass, String.class, long.class));
+      MethodHandle factory = lookup.findVirtual(builderClass, "factory",
+          MethodType.methodType(ThreadFactory.class));
+      MethodHandle newExecutor = lookup.findStatic(Executors.class, "newThreadPerTaskExecutor",
+          MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+
+      // (String prefix) -> newThreadPerTaskExecutor(ofVirtual().name(prefix, 1).factory())
+      MethodHandle named = MethodHandles.insertArguments(
+          MethodHandles.foldArguments(name, ofVirtual), 1, 1L);
+      MethodHandle namedFactory = MethodHandles.filterReturnValue(named,
+          factory.asType(MethodType.methodType(ThreadFactory.class, virtualBuilderClass)));
+      MethodHandle handle = MethodHandles.filterReturnValue(namedFactory, newExecutor);
+      // Fail here rather than on first use if virtual threads are a preview feature.
+      ((ExecutorService) handle.invoke("probe #")).shutdown();
+      return handle;
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  private static boolean enabled() {
+    if (!Boolean.getBoolean("velocity.virtual-thread-plugin-executors")) {
+      return false;
+    }
+    if (NEW_EXECUTOR == null) {
+      logger.warn("Virtual thread plugin executors were requested, but virtual threads are not "
+          + "available in this Java version. Falling back to regular thread pools.");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether plugin executors should use virtual threads.
+   *
+   * @return whether plugin executors should use virtual threads
+   */
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /**
+   * Returns whether the Java runtime supports virtual threads, regardless of whether they were
+   * requested.
+   *
+   * @return whether virtual threads are available
+   */
+  static boolean isAvailable() {
+    return NEW_EXECUTOR != null;
+  }
+
+  /**
+   * Creates a new executor running every task on its own virtual thread, recording pinned carrier
+   * threads for the specified plugin.
+   *
+   * @param pluginId the ID of the plugin the executor belongs to
+   * @param threadName the prefix for the names of the executor's threads
+   * @return the new executor
+   */
+  static ExecutorService create(String pluginId, String threadName) {
+    if (NEW_EXECUTOR == null) {
+      throw new IllegalStateException("Virtual threads are not available");
+    }
+    pinnedStats.putIfAbsent(threadName, new PinnedCarrierStats(pluginId));
+    startPinnedEventStream();
+    try {
+      return (ExecutorService) NEW_EXECUTOR.invoke(threadName);
+    } catch (Throwable e) {
+      throw new IllegalStateException("Unable to create virtual thread executor", e);
+    }
+  }
+
+  private static synchronized void startPinnedEventStream() {
+    if (pinnedEvents != null) {
+      return;
+    }
+    try {
+      RecordingStream stream = new RecordingStream();
+      stream.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD).withStackTrace();
+      stream.onEvent(PINNED_EVENT, VirtualThreadExecutors::recordPinned);
+      stream.startAsync();
+      pinnedEvents = stream;
+    } catch (Exception e) {
+      logger.warn("Unable to monitor plugin virtual threads for pinned carrier threads", e);
+    }
+  }
+
+  /**
+   * Stops monitoring virtual threads for pinned carrier threads. The monitor runs on a non-daemon
+   * thread, so this must be called when the proxy shuts down.
+   */
+  public static synchronized void shutdown() {
+    if (pinnedEvents != null) {
+      pinnedEvents.close();
+      pinnedEvents = null;
+    }
+  }
+
+  private static void recordPinned(RecordedEvent event) {
+    RecordedThread thread = event.getThread();
+    String threadName = thread == null ? null : thread.getJavaName();
+    if (threadName == null) {
+      return;
+    }
+    for (Map.Entry<String, PinnedCarrierStats> entry : pinnedStats.entrySet()) {
+      if (threadName.startsWith(entry.getKey())) {
+        PinnedCarrierStats stats = entry.getValue();
+        stats.events.increment();
+        stats.nanos.add(event.getDuration().toNanos());
+        if (stats.events.sum() == 1) {
+          logger.warn("Plugin {} blocked a carrier thread for {} ms while pinned at {}. Blocking "
+                  + "inside synchronized blocks or native code prevents other plugin tasks from "
+                  + "running.", stats.pluginId, event.getDuration().toMillis(),
+              describeTopFrame(event));
+        }
+        return;
+      }
+    }
+  }
+
+  private static String describeTopFrame(RecordedEvent event) {
+    if (event.getStackTrace() != null) {
+      // Skip the frames of the JDK parking the thread to find where the plugin blocked.
+      for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+        String type = frame.getMethod().getType().getName();
+        if (!type.startsWith("java.") && !type.startsWith("jdk.")) {
+          return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+        }
+      }
+    }
+    return "an unknown location";
+  }
+
+  /**
+   * Returns the pinned carrier thread statistics of every plugin using a virtual thread executor,
+   * keyed by plugin ID.
+   *
+   * @return the pinned carrier thread statistics
+   */
+  public static Map<String, PinnedCarrierStats> getPinnedCarrierStats() {
+    Map<String, PinnedCarrierStats> byPlugin = new ConcurrentHashMap<>();
+    for (PinnedCarrierStats stats : pinnedStats.values()) {
+      byPlugin.put(stats.pluginId, stats);
+    }
+    return byPlugin;
+  }
+
+  /**
+   * How often, and for how long, the virtual threads of a plugin blocked while pinned to their
+   * carrier thread.
+   */
+  public static final class PinnedCarrierStats {
+
+    private final String pluginId;
+    private final LongAdder events = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    private PinnedCarrierStats(String pluginId) {
+      this.pluginId = pluginId;
+    }
+
+    public long getPinnedEvents() {
+      return events.sum();
+    }
+
+    public long getPinnedNanos() {
+      return nanos.sum();
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2024 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * A packet that is still in its compressed form, exactly as it was received. Used to forward
+ * packets the proxy does not inspect without having to inflate and deflate them again.
+ */
+public final class CompressedFrame extends DefaultByteBufHolder {
+
+  private final int uncompressedSize;
+
+  /**
+   * Creates a new compressed frame.
+   *
+   * @param uncompressedSize the size of the packet once inflated
+   * @param compressed the compressed packet data, excluding the uncompressed size prefix
+   */
+  public CompressedFrame(int uncompressedSize, ByteBuf compressed) {
+    super(compressed);
+    this.uncompressedSize = uncompressedSize;
+  }
+
+  public int getUncompressedSize() {
+    return uncompressedSize;
+  }
+
+  @Override
+  public CompressedFrame replace(ByteBuf content) {
+    return new CompressedFrame(uncompressedSize, content);
+  }
+
+  @Override
+  public String toString() {
+    return "CompressedFrame{"
+        + "uncompressedSize=" + uncompressedSize
+        + ", compressedSize=" + content().readableBytes()
+        + '}';
+  }
+}
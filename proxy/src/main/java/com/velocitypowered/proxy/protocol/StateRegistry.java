@@ -114,11 +114,13 @@ import io.netty.util.collection.IntObjectHashMap;
 import io.netty.util.collection.IntObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -866,6 +868,7 @@ public enum StateRegistry {
 
           if (!current.encodeOnly) {
             registry.packetIdToSupplier.put(current.id, packetSupplier);
+            registry.packetIdToClass.put(current.id, clazz);
           }
           registry.packetClassToId.put(clazz, current.id);
         }
@@ -880,6 +883,8 @@ public enum StateRegistry {
       public final ProtocolVersion version;
       final IntObjectMap<Supplier<? extends MinecraftPacket>> packetIdToSupplier =
           new IntObjectHashMap<>(16, 0.5f);
+      final IntObjectMap<Class<? extends MinecraftPacket>> packetIdToClass =
+          new IntObjectHashMap<>(16, 0.5f);
       final Object2IntMap<Class<? extends MinecraftPacket>> packetClassToId =
           new Object2IntOpenHashMap<>(16, 0.5f);
 
@@ -930,6 +935,23 @@ public enum StateRegistry {
       public boolean containsPacket(final MinecraftPacket packet) {
         return this.packetClassToId.containsKey(packet.getClass());
       }
+
+      /**
+       * Collects the IDs of all decodable packets whose type matches the specified {@code filter}.
+       *
+       * @param filter the filter to apply to each registered packet type
+       * @return the IDs of the matching packets
+       */
+      public BitSet getPacketIds(final Predicate<Class<? extends MinecraftPacket>> filter) {
+        final BitSet ids = new BitSet();
+        for (final IntObjectMap.PrimitiveEntry<Class<? extends MinecraftPacket>> entry
+            : this.packetIdToClass.entries()) {
+          if (filter.test(entry.value())) {
+            ids.set(entry.key());
+          }
+        }
+        return ids;
+      }
     }
   }
 
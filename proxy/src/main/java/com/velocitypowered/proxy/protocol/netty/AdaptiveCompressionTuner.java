@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.velocitypowered.natives.compression.VelocityCompressor;
+import com.velocitypowered.natives.compression.VelocityCompressorFactory;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Adjusts the compression level of a single connection based on how well and how cheaply its
+ * packets compress, and whether the connection keeps up with what we send it.
+ *
+ * <p>The compression threshold is announced to the client during login and enforced by it, so it
+ * cannot change afterwards. The level, on the other hand, is entirely up to us.
+ */
+public final class AdaptiveCompressionTuner {
+
+  private static final int DEFAULT_LEVEL = 6;
+  // How much data is compressed before the level is reconsidered.
+  private static final long WINDOW_BYTES = 1024 * 1024;
+  // If compressed packets end up at more than 90% of their original size, compressing them harder
+  // is a waste of CPU time.
+  private static final double POOR_RATIO = 0.9;
+
+  private final VelocityCompressorFactory factory;
+  private final int minLevel;
+  private final int maxLevel;
+  private final int targetNanosPerByte;
+  private int level;
+  private @Nullable VelocityCompressor compressor;
+
+  private long windowUncompressed;
+  private long windowCompressed;
+  private long windowNanos;
+  private boolean windowCongested;
+
+  /**
+   * Creates a new tuner.
+   *
+   * @param factory the factory to create compressors for new levels with
+   * @param initialLevel the level the connection currently compresses at, or {@code -1} for the
+   *                     default level
+   * @param minLevel the lowest level to go down to
+   * @param maxLevel the highest level to go up to
+   * @param targetNanosPerByte the average time compressing a byte may take
+   */
+  public AdaptiveCompressionTuner(VelocityCompressorFactory factory, int initialLevel,
+      int minLevel, int maxLevel, int targetNanosPerByte) {
+    this.factory = factory;
+    this.minLevel = minLevel;
+    this.maxLevel = maxLevel;
+    this.targetNanosPerByte = targetNanosPerByte;
+    this.level = initialLevel == -1 ? DEFAULT_LEVEL : initialLevel;
+  }
+
+  /**
+   * Records the compression of a single packet.
+   *
+   * @param uncompressed the size of the packet before compression
+   * @param compressed the size of the packet after compression
+   * @param nanos how long compressing the packet took
+   * @param congested whether the connection is currently not keeping up with our writes
+   * @return a compressor for the new level if the level was changed, otherwise {@code null}
+   */
+  public @Nullable VelocityCompressor record(int uncompressed, int compressed, long nanos,
+      boolean congested) {
+    windowUncompressed += uncompressed;
+    windowCompressed += compressed;
+    windowNanos += nanos;
+    windowCongested |= congested;
+    if (windowUncompressed < WINDOW_BYTES) {
+      return null;
+    }
+
+    int newLevel = nextLevel();
+    windowUncompressed = 0;
+    windowCompressed = 0;
+    windowNanos = 0;
+    windowCongested = false;
+    if (newLevel == level) {
+      return null;
+    }
+
+    level = newLevel;
+    VelocityCompressor previous = compressor;
+    compressor = factory.create(newLevel);
+    if (previous != null) {
+      previous.close();
+    }
+    return compressor;
+  }
+
+  private int nextLevel() {
+    double nanosPerByte = (double) windowNanos / windowUncompressed;
+    double ratio = (double) windowCompressed / windowUncompressed;
+    if (windowCongested && ratio < POOR_RATIO) {
+      // The connection can't keep up, so trade CPU time for bandwidth.
+      return Math.min(level + 1, maxLevel);
+    }
+    if (nanosPerByte > targetNanosPerByte || ratio >= POOR_RATIO) {
+      return Math.max(level - 1, minLevel);
+    }
+    return Math.max(Math.min(level, maxLevel), minLevel);
+  }
+
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * Closes the compressor created by this tuner, if there is one.
+   */
+  public void close() {
+    if (compressor != null) {
+      compressor.close();
+      compressor = null;
+    }
+  }
+}
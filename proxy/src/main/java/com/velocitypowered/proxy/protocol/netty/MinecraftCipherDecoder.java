@@ -20,6 +20,7 @@ package com.velocitypowered.proxy.protocol.netty;
 import com.google.common.base.Preconditions;
 import com.velocitypowered.natives.encryption.VelocityCipher;
 import com.velocitypowered.natives.util.MoreByteBufUtils;
+import com.velocitypowered.proxy.metrics.ProxyMetrics;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
@@ -31,6 +32,7 @@ import java.util.List;
 public class MinecraftCipherDecoder extends MessageToMessageDecoder<ByteBuf> {
 
   private final VelocityCipher cipher;
+  private boolean cipherTransferred;
 
   public MinecraftCipherDecoder(VelocityCipher cipher) {
     this.cipher = Preconditions.checkNotNull(cipher, "cipher");
@@ -40,7 +42,12 @@ public class MinecraftCipherDecoder extends MessageToMessageDecoder<ByteBuf> {
   protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
     ByteBuf compatible = MoreByteBufUtils.ensureCompatible(ctx.alloc(), cipher, in).slice();
     try {
+      boolean timed = ProxyMetrics.isEnabled();
+      long startNanos = timed ? System.nanoTime() : 0;
       cipher.process(compatible);
+      if (timed) {
+        ProxyMetrics.recordCipher(false, System.nanoTime() - startNanos);
+      }
       out.add(compatible);
     } catch (Exception e) {
       compatible.release(); // compatible will never be used if we throw an exception
@@ -48,8 +55,20 @@ public class MinecraftCipherDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
   }
 
+  /**
+   * Hands the cipher over to another handler, which becomes responsible for closing it.
+   *
+   * @return the cipher
+   */
+  VelocityCipher transferCipher() {
+    this.cipherTransferred = true;
+    return cipher;
+  }
+
   @Override
   public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
-    cipher.close();
+    if (!cipherTransferred) {
+      cipher.close();
+    }
   }
 }
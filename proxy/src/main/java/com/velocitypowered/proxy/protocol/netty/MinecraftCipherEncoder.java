@@ -20,6 +20,7 @@ package com.velocitypowered.proxy.protocol.netty;
 import com.google.common.base.Preconditions;
 import com.velocitypowered.natives.encryption.VelocityCipher;
 import com.velocitypowered.natives.util.MoreByteBufUtils;
+import com.velocitypowered.proxy.metrics.ProxyMetrics;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
@@ -31,6 +32,7 @@ import java.util.List;
 public class MinecraftCipherEncoder extends MessageToMessageEncoder<ByteBuf> {
 
   private final VelocityCipher cipher;
+  private boolean cipherTransferred;
 
   public MinecraftCipherEncoder(VelocityCipher cipher) {
     this.cipher = Preconditions.checkNotNull(cipher, "cipher");
@@ -38,9 +40,21 @@ public class MinecraftCipherEncoder extends MessageToMessageEncoder<ByteBuf> {
 
   @Override
   protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
-    ByteBuf compatible = MoreByteBufUtils.ensureCompatible(ctx.alloc(), cipher, msg);
+    ByteBuf compatible;
+    if (msg.isReadOnly()) {
+      // The buffer is shared with other connections, so it must not be encrypted in place.
+      compatible = MoreByteBufUtils.preferredBuffer(ctx.alloc(), cipher, msg.readableBytes());
+      compatible.writeBytes(msg, msg.readerIndex(), msg.readableBytes());
+    } else {
+      compatible = MoreByteBufUtils.ensureCompatible(ctx.alloc(), cipher, msg);
+    }
     try {
+      boolean timed = ProxyMetrics.isEnabled();
+      long startNanos = timed ? System.nanoTime() : 0;
       cipher.process(compatible);
+      if (timed) {
+        ProxyMetrics.recordCipher(true, System.nanoTime() - startNanos);
+      }
       out.add(compatible);
     } catch (Exception e) {
       compatible.release(); // compatible will never be used if we throw an exception
@@ -48,8 +62,20 @@ public class MinecraftCipherEncoder extends MessageToMessageEncoder<ByteBuf> {
     }
   }
 
+  /**
+   * Hands the cipher over to another handler, which becomes responsible for closing it.
+   *
+   * @return the cipher
+   */
+  VelocityCipher transferCipher() {
+    this.cipherTransferred = true;
+    return cipher;
+  }
+
   @Override
   public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
-    cipher.close();
+    if (!cipherTransferred) {
+      cipher.close();
+    }
   }
 }
@@ -22,11 +22,15 @@ import static com.velocitypowered.natives.util.MoreByteBufUtils.preferredBuffer;
 import static com.velocitypowered.proxy.protocol.util.NettyPreconditions.checkFrame;
 
 import com.velocitypowered.natives.compression.VelocityCompressor;
+import com.velocitypowered.proxy.protocol.CompressedFrame;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Decompresses a Minecraft packet.
@@ -40,8 +44,14 @@ public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
       Boolean.getBoolean("velocity.increased-compression-cap")
           ? HARD_MAXIMUM_UNCOMPRESSED_SIZE : VANILLA_MAXIMUM_UNCOMPRESSED_SIZE;
 
+  // Large enough to hold any VarInt, which is all we need to find out the packet ID.
+  private static final int PACKET_ID_PEEK_SIZE = 5;
+
   private int threshold;
   private final VelocityCompressor compressor;
+  private @Nullable MinecraftDecoder passthroughDecoder;
+  private @Nullable Inflater peekInflater;
+  private final byte[] peekBuffer = new byte[PACKET_ID_PEEK_SIZE];
 
   public MinecraftCompressDecoder(int threshold, VelocityCompressor compressor) {
     this.threshold = threshold;
@@ -63,6 +73,13 @@ public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
         "Uncompressed size %s exceeds hard threshold of %s", claimedUncompressedSize,
         UNCOMPRESSED_CAP);
 
+    if (passthroughDecoder != null && passthroughDecoder.hasPassthrough()
+        && passthroughDecoder.isPassthrough(peekPacketId(in))) {
+      // The packet will be forwarded as-is, so there is no need to inflate it.
+      out.add(new CompressedFrame(claimedUncompressedSize, in.retain()));
+      return;
+    }
+
     ByteBuf compatibleIn = ensureCompatible(ctx.alloc(), compressor, in);
     ByteBuf uncompressed = preferredBuffer(ctx.alloc(), compressor, claimedUncompressedSize);
     try {
@@ -76,9 +93,69 @@ public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
   }
 
+  /**
+   * Inflates just enough of the compressed packet to read its ID, without consuming any data from
+   * the buffer.
+   *
+   * @param in the compressed packet
+   * @return the packet ID, or {@code -1} if it could not be determined
+   */
+  private int peekPacketId(ByteBuf in) {
+    if (in.nioBufferCount() != 1) {
+      return -1;
+    }
+
+    Inflater inflater = this.peekInflater;
+    if (inflater == null) {
+      inflater = this.peekInflater = new Inflater();
+    }
+
+    try {
+      inflater.setInput(in.nioBuffer());
+      int produced = inflater.inflate(peekBuffer);
+
+      int packetId = 0;
+      for (int i = 0; i < produced; i++) {
+        byte b = peekBuffer[i];
+        packetId |= (b & 0x7F) << (i * 7);
+        if ((b & 0x80) != 128) {
+          return packetId;
+        }
+      }
+      return -1;
+    } catch (DataFormatException e) {
+      // Let the full inflate report the problem.
+      return -1;
+    } finally {
+      inflater.reset();
+    }
+  }
+
   @Override
   public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    close();
+  }
+
+  /**
+   * Releases the compressor and inflater held by this decoder, for when it is used outside the
+   * pipeline and will never see {@link #handlerRemoved(ChannelHandlerContext)}.
+   */
+  void close() {
     compressor.close();
+    if (peekInflater != null) {
+      peekInflater.end();
+      peekInflater = null;
+    }
+  }
+
+  /**
+   * Allows compressed packets to be forwarded as {@link CompressedFrame}s, without being inflated,
+   * if the specified {@code decoder} would pass them through.
+   *
+   * @param decoder the packet decoder that decides which packets are passed through
+   */
+  public void setPassthroughDecoder(@Nullable MinecraftDecoder decoder) {
+    this.passthroughDecoder = decoder;
   }
 
   public void setThreshold(int threshold) {
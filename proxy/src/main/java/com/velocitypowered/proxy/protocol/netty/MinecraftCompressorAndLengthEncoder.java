@@ -21,25 +21,58 @@ import static com.velocitypowered.proxy.protocol.netty.MinecraftVarintLengthEnco
 
 import com.velocitypowered.natives.compression.VelocityCompressor;
 import com.velocitypowered.natives.util.MoreByteBufUtils;
+import com.velocitypowered.proxy.metrics.ProxyMetrics;
+import com.velocitypowered.proxy.protocol.CompressedFrame;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
 import java.util.zip.DataFormatException;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Handler for compressing Minecraft packets.
  */
 public class MinecraftCompressorAndLengthEncoder extends MessageToByteEncoder<ByteBuf> {
 
+  // Packets at least this large are passed on as they are, behind a separate header buffer,
+  // instead of being copied into a new buffer. Below this size, copying is cheaper than having the
+  // transport deal with another buffer.
+  static final int ZERO_COPY_MIN_SIZE = 1024;
+
   private int threshold;
-  private final VelocityCompressor compressor;
+  private VelocityCompressor compressor;
+  private @Nullable AdaptiveCompressionTuner tuner;
 
   public MinecraftCompressorAndLengthEncoder(int threshold, VelocityCompressor compressor) {
     this.threshold = threshold;
     this.compressor = compressor;
   }
 
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
+      throws Exception {
+    if (msg instanceof CompressedFrame frame) {
+      try {
+        writeCompressedFrame(ctx, frame, promise);
+      } finally {
+        frame.release();
+      }
+    } else if (msg instanceof ByteBuf buf && buf.readableBytes() < threshold
+        && buf.readableBytes() >= ZERO_COPY_MIN_SIZE) {
+      // Under the threshold, there is nothing to do but to prepend the header.
+      int uncompressed = buf.readableBytes();
+      ByteBuf header = allocateHeader(ctx, uncompressed + 1);
+      ProtocolUtils.writeVarInt(header, uncompressed + 1);
+      ProtocolUtils.writeVarInt(header, 0);
+      ctx.write(header, ctx.voidPromise());
+      ctx.write(buf, promise);
+    } else {
+      super.write(ctx, msg, promise);
+    }
+  }
+
   @Override
   protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception {
     int uncompressed = msg.readableBytes();
@@ -62,12 +95,25 @@ public class MinecraftCompressorAndLengthEncoder extends MessageToByteEncoder<By
     ByteBuf compatibleIn = MoreByteBufUtils.ensureCompatible(ctx.alloc(), compressor, msg);
 
     int startCompressed = out.writerIndex();
+    boolean timed = tuner != null || ProxyMetrics.isEnabled();
+    long startNanos = timed ? System.nanoTime() : 0;
     try {
       compressor.deflate(compatibleIn, out);
     } finally {
       compatibleIn.release();
     }
     int compressedLength = out.writerIndex() - startCompressed;
+    long elapsedNanos = timed ? System.nanoTime() - startNanos : 0;
+    if (ProxyMetrics.isEnabled()) {
+      ProxyMetrics.recordCompression(uncompressed, compressedLength, elapsedNanos);
+    }
+    if (tuner != null) {
+      VelocityCompressor tuned = tuner.record(uncompressed, compressedLength,
+          elapsedNanos, !ctx.channel().isWritable());
+      if (tuned != null) {
+        compressor = tuned;
+      }
+    }
     if (compressedLength >= 1 << 21) {
       throw new DataFormatException("The server sent a very large (over 2MiB compressed) packet.");
     }
@@ -79,6 +125,63 @@ public class MinecraftCompressorAndLengthEncoder extends MessageToByteEncoder<By
     out.writerIndex(writerIndex);
   }
 
+  private void writeCompressedFrame(ChannelHandlerContext ctx, CompressedFrame frame,
+      ChannelPromise promise) throws DataFormatException {
+    int uncompressed = frame.getUncompressedSize();
+    if (uncompressed < threshold) {
+      // The packet was compressed under a lower threshold than ours, so we must inflate it.
+      ByteBuf compatibleIn = MoreByteBufUtils.ensureCompatible(ctx.alloc(), compressor,
+          frame.content());
+      int finalBufferSize = uncompressed + 1;
+      finalBufferSize += ProtocolUtils.varIntBytes(finalBufferSize);
+      ByteBuf out = MoreByteBufUtils.preferredBuffer(ctx.alloc(), compressor, finalBufferSize);
+      try {
+        ProtocolUtils.writeVarInt(out, uncompressed + 1);
+        ProtocolUtils.writeVarInt(out, 0);
+        compressor.inflate(compatibleIn, out, uncompressed);
+      } catch (Exception e) {
+        out.release();
+        throw e;
+      } finally {
+        compatibleIn.release();
+      }
+      ctx.write(out, promise);
+      return;
+    }
+
+    // The frame is already compressed, so all that is left is to prepend the packet length.
+    ByteBuf compressed = frame.content();
+    int packetLength = ProtocolUtils.varIntBytes(uncompressed) + compressed.readableBytes();
+    if (compressed.readableBytes() >= ZERO_COPY_MIN_SIZE) {
+      // Send the compressed data on as-is, without copying it.
+      ByteBuf header = allocateHeader(ctx, packetLength);
+      ProtocolUtils.writeVarInt(header, packetLength);
+      ProtocolUtils.writeVarInt(header, uncompressed);
+      ctx.write(header, ctx.voidPromise());
+      ctx.write(compressed.retain(), promise);
+      return;
+    }
+
+    int finalBufferSize = packetLength + ProtocolUtils.varIntBytes(packetLength);
+    ByteBuf out = IS_JAVA_CIPHER
+        ? ctx.alloc().heapBuffer(finalBufferSize)
+        : ctx.alloc().directBuffer(finalBufferSize);
+    ProtocolUtils.writeVarInt(out, packetLength);
+    ProtocolUtils.writeVarInt(out, uncompressed);
+    out.writeBytes(compressed, compressed.readerIndex(), compressed.readableBytes());
+    ctx.write(out, promise);
+  }
+
+  /**
+   * Allocates a buffer large enough for a packet length VarInt followed by a data length VarInt.
+   */
+  private static ByteBuf allocateHeader(ChannelHandlerContext ctx, int packetLength) {
+    int headerSize = ProtocolUtils.varIntBytes(packetLength) + 5;
+    return IS_JAVA_CIPHER
+        ? ctx.alloc().heapBuffer(headerSize)
+        : ctx.alloc().directBuffer(headerSize);
+  }
+
   @Override
   protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect)
       throws Exception {
@@ -99,6 +202,13 @@ public class MinecraftCompressorAndLengthEncoder extends MessageToByteEncoder<By
   @Override
   public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
     compressor.close();
+    if (tuner != null) {
+      tuner.close();
+    }
+  }
+
+  public void setTuner(@Nullable AdaptiveCompressionTuner tuner) {
+    this.tuner = tuner;
   }
 
   public void setThreshold(int threshold) {
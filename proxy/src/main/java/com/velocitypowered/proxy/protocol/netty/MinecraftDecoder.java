@@ -19,6 +19,8 @@ package com.velocitypowered.proxy.protocol.netty;
 
 import com.google.common.base.Preconditions;
 import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.metrics.ProxyMetrics;
+import com.velocitypowered.proxy.protocol.CompressedFrame;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.StateRegistry;
@@ -27,6 +29,9 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.handler.codec.CorruptedFrameException;
+import java.util.BitSet;
+import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Decodes Minecraft packets.
@@ -41,6 +46,8 @@ public class MinecraftDecoder extends ChannelInboundHandlerAdapter {
   private final ProtocolUtils.Direction direction;
   private StateRegistry state;
   private StateRegistry.PacketRegistry.ProtocolRegistry registry;
+  private @Nullable Predicate<Class<? extends MinecraftPacket>> passthroughFilter;
+  private @Nullable BitSet passthroughIds;
 
   /**
    * Creates a new {@code MinecraftDecoder} decoding packets from the specified {@code direction}.
@@ -59,6 +66,9 @@ public class MinecraftDecoder extends ChannelInboundHandlerAdapter {
     if (msg instanceof ByteBuf buf) {
       tryDecode(ctx, buf);
     } else {
+      if (msg instanceof CompressedFrame frame && ProxyMetrics.isEnabled()) {
+        ProxyMetrics.recordReceived(state, direction, frame.getUncompressedSize());
+      }
       ctx.fireChannelRead(msg);
     }
   }
@@ -69,9 +79,13 @@ public class MinecraftDecoder extends ChannelInboundHandlerAdapter {
       return;
     }
 
+    if (ProxyMetrics.isEnabled()) {
+      ProxyMetrics.recordReceived(state, direction, buf.readableBytes());
+    }
+
     int originalReaderIndex = buf.readerIndex();
     int packetId = ProtocolUtils.readVarInt(buf);
-    MinecraftPacket packet = this.registry.createPacket(packetId);
+    MinecraftPacket packet = isPassthrough(packetId) ? null : this.registry.createPacket(packetId);
     if (packet == null) {
       buf.readerIndex(originalReaderIndex);
       ctx.fireChannelRead(buf);
@@ -95,6 +109,26 @@ public class MinecraftDecoder extends ChannelInboundHandlerAdapter {
     }
   }
 
+  /**
+   * Determines whether any packets are currently forwarded without being decoded.
+   *
+   * @return {@code true} if some packets are passed through in their raw form
+   */
+  public boolean hasPassthrough() {
+    return this.passthroughIds != null && !this.passthroughIds.isEmpty();
+  }
+
+  /**
+   * Determines whether the packet with the specified {@code packetId} should be forwarded without
+   * being decoded.
+   *
+   * @param packetId the packet ID
+   * @return {@code true} if the packet is passed through in its raw form
+   */
+  public boolean isPassthrough(int packetId) {
+    return this.passthroughIds != null && packetId >= 0 && this.passthroughIds.get(packetId);
+  }
+
   private void doLengthSanityChecks(ByteBuf buf, MinecraftPacket packet) throws Exception {
     int expectedMinLen = packet.expectedMinLength(buf, direction, registry.version);
     int expectedMaxLen = packet.expectedMaxLength(buf, direction, registry.version);
@@ -140,6 +174,7 @@ public class MinecraftDecoder extends ChannelInboundHandlerAdapter {
 
   public void setProtocolVersion(ProtocolVersion protocolVersion) {
     this.registry = state.getProtocolRegistry(direction, protocolVersion);
+    this.updatePassthroughIds();
   }
 
   public void setState(StateRegistry state) {
@@ -147,6 +182,27 @@ public class MinecraftDecoder extends ChannelInboundHandlerAdapter {
     this.setProtocolVersion(registry.version);
   }
 
+  /**
+   * Sets the filter used to select packets that are forwarded in their raw form, without being
+   * decoded, while the connection is in the {@link StateRegistry#PLAY} state.
+   *
+   * @param filter a filter matching the packet types to pass through, or {@code null} to decode
+   *               every known packet
+   */
+  public void setPassthroughFilter(
+      @Nullable Predicate<Class<? extends MinecraftPacket>> filter) {
+    this.passthroughFilter = filter;
+    this.updatePassthroughIds();
+  }
+
+  private void updatePassthroughIds() {
+    if (this.passthroughFilter == null || this.state != StateRegistry.PLAY) {
+      this.passthroughIds = null;
+    } else {
+      this.passthroughIds = this.registry.getPacketIds(this.passthroughFilter);
+    }
+  }
+
   public ProtocolUtils.Direction getDirection() {
     return direction;
   }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.natives.encryption.VelocityCipher;
+import com.velocitypowered.natives.util.MoreByteBufUtils;
+import com.velocitypowered.proxy.metrics.ProxyMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Decrypts, frames and decompresses Minecraft packets in a single handler. This replaces the
+ * {@link MinecraftCipherDecoder}, {@link MinecraftVarintFrameDecoder} and
+ * {@link MinecraftCompressDecoder} trio once both encryption and compression are enabled, saving
+ * two pipeline hops and an intermediate buffer for each packet.
+ *
+ * <p>Incoming data is decrypted in place before it is added to the cumulation buffer, and each
+ * frame is inflated straight out of the cumulation buffer.
+ */
+public class MinecraftFusedDecoder extends MinecraftVarintFrameDecoder {
+
+  private final VelocityCipher cipher;
+  private @Nullable MinecraftCompressDecoder compressDecoder;
+  private @Nullable ByteBuf plaintext;
+
+  /**
+   * Creates a new fused decoder, taking over from the specified handlers. Any data already
+   * decrypted but not yet framed is carried over as well.
+   *
+   * @param cipherDecoder the cipher decoder to take the cipher from
+   * @param frameDecoder the frame decoder to take any buffered data from
+   * @param compressDecoder the compression decoder to inflate packets with
+   */
+  public MinecraftFusedDecoder(MinecraftCipherDecoder cipherDecoder,
+      MinecraftVarintFrameDecoder frameDecoder, MinecraftCompressDecoder compressDecoder) {
+    this.cipher = cipherDecoder.transferCipher();
+    this.compressDecoder = Preconditions.checkNotNull(compressDecoder, "compressDecoder");
+
+    ByteBuf buffered = frameDecoder.takeBuffered();
+    if (buffered.isReadable()) {
+      this.plaintext = buffered;
+    } else {
+      buffered.release();
+    }
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+    if (plaintext != null) {
+      // The handover usually happens while a packet is being handled, so wait for that to finish
+      // before handling whatever came after it.
+      ctx.executor().execute(() -> {
+        if (ctx.isRemoved() || plaintext == null) {
+          return;
+        }
+        try {
+          decodePlaintext(ctx);
+          channelReadComplete(ctx);
+        } catch (Exception e) {
+          ctx.fireExceptionCaught(e);
+        }
+      });
+    }
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    decodePlaintext(ctx);
+    if (!(msg instanceof ByteBuf)) {
+      super.channelRead(ctx, msg);
+      return;
+    }
+
+    ByteBuf compatible = MoreByteBufUtils.ensureCompatible(ctx.alloc(), cipher, (ByteBuf) msg);
+    ((ByteBuf) msg).release();
+    try {
+      boolean timed = ProxyMetrics.isEnabled();
+      long startNanos = timed ? System.nanoTime() : 0;
+      cipher.process(compatible);
+      if (timed) {
+        ProxyMetrics.recordCipher(false, System.nanoTime() - startNanos);
+      }
+    } catch (Exception e) {
+      compatible.release();
+      throw e;
+    }
+    super.channelRead(ctx, compatible);
+  }
+
+  private void decodePlaintext(ChannelHandlerContext ctx) throws Exception {
+    ByteBuf plaintext = this.plaintext;
+    if (plaintext != null) {
+      this.plaintext = null;
+      super.channelRead(ctx, plaintext);
+    }
+  }
+
+  @Override
+  protected void frameDecoded(ChannelHandlerContext ctx, ByteBuf in, int length, List<Object> out)
+      throws Exception {
+    MinecraftCompressDecoder compressDecoder = this.compressDecoder;
+    if (compressDecoder == null) {
+      super.frameDecoded(ctx, in, length, out);
+      return;
+    }
+
+    ByteBuf frame = in.slice(in.readerIndex(), length);
+    in.skipBytes(length);
+    compressDecoder.decode(ctx, frame, out);
+  }
+
+  @Override
+  protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+    cipher.close();
+    if (compressDecoder != null) {
+      compressDecoder.close();
+    }
+    if (plaintext != null) {
+      plaintext.release();
+      plaintext = null;
+    }
+  }
+
+  public @Nullable MinecraftCompressDecoder getCompressDecoder() {
+    return compressDecoder;
+  }
+
+  /**
+   * Stops decompressing packets, for when the remote end disables compression. The compression
+   * decoder that was in use is closed, as it never gets removed from the pipeline.
+   *
+   * @return the compression decoder that was in use, or {@code null} if there was none
+   */
+  public @Nullable MinecraftCompressDecoder disableCompression() {
+    MinecraftCompressDecoder decoder = this.compressDecoder;
+    this.compressDecoder = null;
+    if (decoder != null) {
+      decoder.close();
+    }
+    return decoder;
+  }
+}
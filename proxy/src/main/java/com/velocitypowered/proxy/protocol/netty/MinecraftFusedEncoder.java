@@ -0,0 +1,383 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.natives.compression.VelocityCompressor;
+import com.velocitypowered.natives.encryption.VelocityCipher;
+import com.velocitypowered.natives.util.BufferPreference;
+import com.velocitypowered.natives.util.MoreByteBufUtils;
+import com.velocitypowered.proxy.metrics.ProxyMetrics;
+import com.velocitypowered.proxy.protocol.CompressedFrame;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.PromiseNotifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Compresses, frames and encrypts Minecraft packets in a single handler. This replaces the
+ * {@link MinecraftCompressorAndLengthEncoder} and {@link MinecraftCipherEncoder} pair once both
+ * encryption and compression are enabled.
+ *
+ * <p>Rather than allocating a buffer for every packet at every stage, all packets written between
+ * two flushes are compressed and framed into one shared buffer, which is encrypted in place and
+ * written out as a whole when the channel is flushed. This keeps both allocations and the number
+ * of buffers handed to the transport down when many packets are written in a row.
+ *
+ * <p>Large packets that need no compression, such as forwarded packets that are already
+ * compressed, are not copied into the batch. They are encrypted in place and passed on right
+ * after it instead.
+ */
+public class MinecraftFusedEncoder extends ChannelOutboundHandlerAdapter {
+
+  private static final int INITIAL_BATCH_SIZE = 8192;
+  // Once a batch grows this large, it is written out even without a flush, so that a long run of
+  // writes does not end up buffering an unbounded amount of data.
+  private static final int MAX_BATCH_SIZE = 64 * 1024;
+  // Room for the packet length and data length VarInts written in front of every packet.
+  private static final int MAX_HEADER_SIZE = 3 + 5;
+
+  private int threshold;
+  private VelocityCompressor compressor;
+  private @Nullable AdaptiveCompressionTuner tuner;
+  private final VelocityCipher cipher;
+  private final boolean directBatches;
+  private final boolean compressInPlace;
+  private final List<ChannelPromise> batchPromises = new ArrayList<>();
+  private @Nullable ByteBuf batch;
+  private boolean cipherTransferred;
+
+  /**
+   * Creates a new fused encoder, taking over the cipher from the specified cipher encoder.
+   *
+   * @param threshold the compression threshold
+   * @param compressor the compressor to use
+   * @param cipherEncoder the cipher encoder to take the cipher from
+   */
+  public MinecraftFusedEncoder(int threshold, VelocityCompressor compressor,
+      MinecraftCipherEncoder cipherEncoder) {
+    this.threshold = threshold;
+    this.compressor = Preconditions.checkNotNull(compressor, "compressor");
+    this.cipher = cipherEncoder.transferCipher();
+
+    // The cipher runs over the whole batch, so it gets to pick the buffer type. The compressor
+    // can usually work on the same buffer, except when exactly one of them insists on heap memory
+    // and the other on direct memory.
+    this.directBatches = cipher.preferredBufferType() != BufferPreference.HEAP_REQUIRED
+        && (cipher.preferredBufferType() == BufferPreference.DIRECT_REQUIRED
+        || compressor.preferredBufferType() != BufferPreference.HEAP_REQUIRED);
+    this.compressInPlace = directBatches
+        ? compressor.preferredBufferType() != BufferPreference.HEAP_REQUIRED
+        : compressor.preferredBufferType() != BufferPreference.DIRECT_REQUIRED;
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
+      throws Exception {
+    if (msg instanceof ByteBuf buf) {
+      if (buf.readableBytes() < threshold && canPassOn(buf)) {
+        passOn(ctx, buf, buf.readableBytes() + 1, 0, promise);
+        return;
+      }
+      try {
+        encodePacket(ctx, buf);
+      } finally {
+        buf.release();
+      }
+    } else if (msg instanceof CompressedFrame frame) {
+      try {
+        ByteBuf compressed = frame.content();
+        int uncompressed = frame.getUncompressedSize();
+        if (uncompressed >= threshold && canPassOn(compressed)) {
+          int packetLength = ProtocolUtils.varIntBytes(uncompressed) + compressed.readableBytes();
+          passOn(ctx, compressed.retain(), packetLength, uncompressed, promise);
+          return;
+        }
+        encodeCompressedFrame(ctx, frame);
+      } finally {
+        frame.release();
+      }
+    } else {
+      // Not something we know how to encode, but it must not overtake what we already buffered.
+      writeBatch(ctx);
+      ctx.write(msg, promise);
+      return;
+    }
+
+    if (!promise.isVoid()) {
+      batchPromises.add(promise);
+    }
+    if (batch != null && batch.readableBytes() >= MAX_BATCH_SIZE) {
+      writeBatch(ctx);
+    }
+  }
+
+  @Override
+  public void flush(ChannelHandlerContext ctx) throws Exception {
+    writeBatch(ctx);
+    ctx.flush();
+  }
+
+  /**
+   * Determines whether {@code buf} is worth passing on as it is, rather than copying it into the
+   * batch, and whether the cipher can work on it in place.
+   */
+  private boolean canPassOn(ByteBuf buf) {
+    if (buf.readableBytes() < MinecraftCompressorAndLengthEncoder.ZERO_COPY_MIN_SIZE
+        || buf.isReadOnly()) {
+      // Read-only buffers are shared with other connections, and can't be encrypted in place.
+      return false;
+    }
+    return switch (cipher.preferredBufferType()) {
+      case DIRECT_REQUIRED -> buf.hasMemoryAddress();
+      case HEAP_REQUIRED -> buf.hasArray();
+      default -> buf.nioBufferCount() == 1;
+    };
+  }
+
+  /**
+   * Ends the current batch with the header of a packet, and writes the packet data right after it
+   * without copying it, encrypting it in place.
+   */
+  private void passOn(ChannelHandlerContext ctx, ByteBuf data, int packetLength, int dataLength,
+      ChannelPromise promise) throws Exception {
+    try {
+      ByteBuf out = batch(ctx, MAX_HEADER_SIZE);
+      ProtocolUtils.writeVarInt(out, packetLength);
+      ProtocolUtils.writeVarInt(out, dataLength);
+      writeBatch(ctx);
+      boolean timed = ProxyMetrics.isEnabled();
+      long startNanos = timed ? System.nanoTime() : 0;
+      cipher.process(data);
+      if (timed) {
+        ProxyMetrics.recordCipher(true, System.nanoTime() - startNanos);
+      }
+    } catch (Exception e) {
+      data.release();
+      throw e;
+    }
+    ctx.write(data, promise);
+  }
+
+  private void encodePacket(ChannelHandlerContext ctx, ByteBuf msg) throws DataFormatException {
+    int uncompressed = msg.readableBytes();
+    ByteBuf out = batch(ctx, uncompressed + MAX_HEADER_SIZE);
+    if (uncompressed < threshold) {
+      // Under the threshold, there is nothing to do.
+      ProtocolUtils.writeVarInt(out, uncompressed + 1);
+      ProtocolUtils.writeVarInt(out, 0);
+      out.writeBytes(msg);
+      return;
+    }
+
+    int packetStart = out.writerIndex();
+    ProtocolUtils.write21BitVarInt(out, 0); // Dummy packet length
+    ProtocolUtils.writeVarInt(out, uncompressed);
+    ByteBuf compatibleIn = MoreByteBufUtils.ensureCompatible(ctx.alloc(), compressor, msg);
+    int startCompressed = out.writerIndex();
+    boolean timed = tuner != null || ProxyMetrics.isEnabled();
+    long startNanos = timed ? System.nanoTime() : 0;
+    try {
+      deflate(ctx, compatibleIn, out);
+    } catch (Exception e) {
+      out.writerIndex(packetStart);
+      throw e;
+    } finally {
+      compatibleIn.release();
+    }
+
+    int packetEnd = out.writerIndex();
+    long elapsedNanos = timed ? System.nanoTime() - startNanos : 0;
+    if (ProxyMetrics.isEnabled()) {
+      ProxyMetrics.recordCompression(uncompressed, packetEnd - startCompressed, elapsedNanos);
+    }
+    if (tuner != null) {
+      VelocityCompressor tuned = tuner.record(uncompressed, packetEnd - startCompressed,
+          elapsedNanos, !ctx.channel().isWritable());
+      if (tuned != null) {
+        compressor = tuned;
+      }
+    }
+    int packetLength = packetEnd - packetStart - 3;
+    if (packetLength >= 1 << 21) {
+      out.writerIndex(packetStart);
+      throw new DataFormatException("The server sent a very large (over 2MiB compressed) packet.");
+    }
+    out.writerIndex(packetStart);
+    ProtocolUtils.write21BitVarInt(out, packetLength); // Rewrite packet length
+    out.writerIndex(packetEnd);
+  }
+
+  private void encodeCompressedFrame(ChannelHandlerContext ctx, CompressedFrame frame)
+      throws DataFormatException {
+    int uncompressed = frame.getUncompressedSize();
+    if (uncompressed < threshold) {
+      // The packet was compressed under a lower threshold than ours, so we must inflate it.
+      ByteBuf out = batch(ctx, uncompressed + MAX_HEADER_SIZE);
+      int packetStart = out.writerIndex();
+      ProtocolUtils.writeVarInt(out, uncompressed + 1);
+      ProtocolUtils.writeVarInt(out, 0);
+      ByteBuf compatibleIn = MoreByteBufUtils.ensureCompatible(ctx.alloc(), compressor,
+          frame.content());
+      try {
+        inflate(ctx, compatibleIn, out, uncompressed);
+      } catch (Exception e) {
+        out.writerIndex(packetStart);
+        throw e;
+      } finally {
+        compatibleIn.release();
+      }
+      return;
+    }
+
+    // The frame is already compressed, so all that is left is to prepend the packet length.
+    ByteBuf compressed = frame.content();
+    int packetLength = ProtocolUtils.varIntBytes(uncompressed) + compressed.readableBytes();
+    ByteBuf out = batch(ctx, packetLength + ProtocolUtils.varIntBytes(packetLength));
+    ProtocolUtils.writeVarInt(out, packetLength);
+    ProtocolUtils.writeVarInt(out, uncompressed);
+    out.writeBytes(compressed, compressed.readerIndex(), compressed.readableBytes());
+  }
+
+  private void deflate(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out)
+      throws DataFormatException {
+    if (compressInPlace) {
+      compressor.deflate(in, out);
+      return;
+    }
+
+    ByteBuf compressed = MoreByteBufUtils.preferredBuffer(ctx.alloc(), compressor,
+        in.readableBytes());
+    try {
+      compressor.deflate(in, compressed);
+      out.writeBytes(compressed);
+    } finally {
+      compressed.release();
+    }
+  }
+
+  private void inflate(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out, int uncompressed)
+      throws DataFormatException {
+    if (compressInPlace) {
+      compressor.inflate(in, out, uncompressed);
+      return;
+    }
+
+    ByteBuf inflated = MoreByteBufUtils.preferredBuffer(ctx.alloc(), compressor, uncompressed);
+    try {
+      compressor.inflate(in, inflated, uncompressed);
+      out.writeBytes(inflated);
+    } finally {
+      inflated.release();
+    }
+  }
+
+  /**
+   * Returns the buffer the current batch is being written into, making sure it has room for at
+   * least {@code minWritable} more bytes.
+   */
+  private ByteBuf batch(ChannelHandlerContext ctx, int minWritable) {
+    ByteBuf batch = this.batch;
+    if (batch == null) {
+      int capacity = Math.max(INITIAL_BATCH_SIZE, minWritable);
+      batch = this.batch = directBatches
+          ? ctx.alloc().directBuffer(capacity)
+          : ctx.alloc().heapBuffer(capacity);
+    } else {
+      batch.ensureWritable(minWritable);
+    }
+    return batch;
+  }
+
+  /**
+   * Encrypts the current batch and passes it on, completing the promises of all packets in it
+   * once it has been written.
+   */
+  private void writeBatch(ChannelHandlerContext ctx) throws Exception {
+    ByteBuf batch = this.batch;
+    if (batch == null) {
+      return;
+    }
+    this.batch = null;
+
+    ChannelPromise promise;
+    if (batchPromises.isEmpty()) {
+      promise = ctx.voidPromise();
+    } else if (batchPromises.size() == 1) {
+      promise = batchPromises.get(0);
+    } else {
+      promise = ctx.newPromise();
+      promise.addListener(new PromiseNotifier<>(batchPromises.toArray(new ChannelPromise[0])));
+    }
+    batchPromises.clear();
+
+    try {
+      boolean timed = ProxyMetrics.isEnabled();
+      long startNanos = timed ? System.nanoTime() : 0;
+      cipher.process(batch);
+      if (timed) {
+        ProxyMetrics.recordCipher(true, System.nanoTime() - startNanos);
+      }
+    } catch (Exception e) {
+      batch.release();
+      promise.tryFailure(e);
+      throw e;
+    }
+    ctx.write(batch, promise);
+  }
+
+  /**
+   * Hands the cipher over to another handler, which becomes responsible for closing it. Anything
+   * still buffered is encrypted and written out when this handler is removed.
+   *
+   * @return the cipher
+   */
+  public VelocityCipher transferCipher() {
+    this.cipherTransferred = true;
+    return cipher;
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    try {
+      writeBatch(ctx);
+    } finally {
+      compressor.close();
+      if (tuner != null) {
+        tuner.close();
+      }
+      if (!cipherTransferred) {
+        cipher.close();
+      }
+    }
+  }
+
+  public void setThreshold(int threshold) {
+    this.threshold = threshold;
+  }
+
+  public void setTuner(@Nullable AdaptiveCompressionTuner tuner) {
+    this.tuner = tuner;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.CorruptedFrameException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Inflates a connection compressed as one continuous deflate stream by
+ * {@link MinecraftStreamCompressEncoder}, passing the inflated data on to the frame decoder.
+ */
+public class MinecraftStreamCompressDecoder extends ChannelInboundHandlerAdapter {
+
+  private static final int OUTPUT_CHUNK_SIZE = 8192;
+
+  private final Inflater inflater = new Inflater();
+  private @Nullable ByteBuf pending;
+
+  /**
+   * Creates a new stream decoder, taking over any data the specified frame decoder has already
+   * received but not framed yet, as that data is already part of the compressed stream.
+   *
+   * @param frameDecoder the frame decoder to take buffered data from
+   */
+  public MinecraftStreamCompressDecoder(MinecraftVarintFrameDecoder frameDecoder) {
+    ByteBuf buffered = frameDecoder.takeBuffered();
+    if (buffered.isReadable()) {
+      this.pending = buffered;
+    } else {
+      buffered.release();
+    }
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+    if (pending != null) {
+      // The handover happens while a packet is being handled, so wait for that to finish before
+      // handling whatever came after it.
+      ctx.executor().execute(() -> {
+        if (ctx.isRemoved() || pending == null) {
+          return;
+        }
+        try {
+          inflatePending(ctx);
+          ctx.fireChannelReadComplete();
+        } catch (Exception e) {
+          ctx.fireExceptionCaught(e);
+        }
+      });
+    }
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    inflatePending(ctx);
+    if (msg instanceof ByteBuf buf) {
+      inflate(ctx, buf);
+    } else {
+      ctx.fireChannelRead(msg);
+    }
+  }
+
+  private void inflatePending(ChannelHandlerContext ctx) throws DataFormatException {
+    ByteBuf pending = this.pending;
+    if (pending != null) {
+      this.pending = null;
+      inflate(ctx, pending);
+    }
+  }
+
+  private void inflate(ChannelHandlerContext ctx, ByteBuf in) throws DataFormatException {
+    try {
+      ByteBuffer input = in.nioBufferCount() == 1 ? in.nioBuffer()
+          : ByteBuffer.wrap(ByteBufUtil.getBytes(in));
+      inflater.setInput(input);
+      while (true) {
+        ByteBuf out = ctx.alloc().heapBuffer(OUTPUT_CHUNK_SIZE);
+        int produced;
+        try {
+          produced = inflater.inflate(out.nioBuffer(0, out.writableBytes()));
+          if (produced == 0 && !inflater.needsInput()) {
+            throw new CorruptedFrameException("Compressed stream ended unexpectedly");
+          }
+          out.writerIndex(produced);
+        } catch (Exception e) {
+          out.release();
+          throw e;
+        }
+        if (out.isReadable()) {
+          ctx.fireChannelRead(out);
+        } else {
+          out.release();
+        }
+        // The inflater may still hold on to output it had no room for after consuming all input.
+        if (inflater.needsInput() && produced < OUTPUT_CHUNK_SIZE) {
+          break;
+        }
+      }
+    } finally {
+      in.release();
+    }
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    inflater.end();
+    if (pending != null) {
+      pending.release();
+      pending = null;
+    }
+  }
+}
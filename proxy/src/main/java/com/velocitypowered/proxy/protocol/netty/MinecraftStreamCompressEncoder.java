@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses everything written to a connection as one continuous deflate stream, rather than
+ * compressing each packet on its own. Data is flushed out of the stream whenever the channel is
+ * flushed, so the compression context, and with it most of the redundancy between packets, is
+ * kept across the whole connection.
+ */
+public class MinecraftStreamCompressEncoder extends ChannelOutboundHandlerAdapter {
+
+  private static final int OUTPUT_CHUNK_SIZE = 8192;
+
+  private final Deflater deflater;
+
+  public MinecraftStreamCompressEncoder(int level) {
+    this.deflater = new Deflater(level);
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
+      throws Exception {
+    if (!(msg instanceof ByteBuf buf)) {
+      ctx.write(msg, promise);
+      return;
+    }
+
+    try {
+      ByteBuffer input = buf.nioBufferCount() == 1 ? buf.nioBuffer()
+          : ByteBuffer.wrap(ByteBufUtil.getBytes(buf));
+      deflater.setInput(input);
+      // Most writes produce little or no output, since deflate holds on to data until it has
+      // enough to work with or is asked to flush.
+      ctx.write(deflate(ctx, Deflater.NO_FLUSH), promise);
+    } finally {
+      buf.release();
+    }
+  }
+
+  @Override
+  public void flush(ChannelHandlerContext ctx) throws Exception {
+    deflater.setInput(ByteBuffer.allocate(0));
+    ByteBuf out = deflate(ctx, Deflater.SYNC_FLUSH);
+    if (out.isReadable()) {
+      ctx.write(out, ctx.voidPromise());
+    } else {
+      out.release();
+    }
+    ctx.flush();
+  }
+
+  private ByteBuf deflate(ChannelHandlerContext ctx, int flush) {
+    ByteBuf out = ctx.alloc().heapBuffer(OUTPUT_CHUNK_SIZE);
+    try {
+      while (true) {
+        out.ensureWritable(OUTPUT_CHUNK_SIZE);
+        ByteBuffer output = out.nioBuffer(out.writerIndex(), out.writableBytes());
+        int produced = deflater.deflate(output, flush);
+        out.writerIndex(out.writerIndex() + produced);
+        // Deflate is done once it has consumed all input and, when flushing, no longer fills up
+        // all the room it was given.
+        if (deflater.needsInput() && (flush == Deflater.NO_FLUSH || output.hasRemaining())) {
+          return out;
+        }
+      }
+    } catch (Exception e) {
+      out.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    deflater.end();
+  }
+}
@@ -67,11 +67,37 @@ public class MinecraftVarintFrameDecoder extends ByteToMessageDecoder {
       if (in.readableBytes() < length) {
         in.resetReaderIndex();
       } else {
-        out.add(in.readRetainedSlice(length));
+        frameDecoded(ctx, in, length, out);
       }
     }
   }
 
+  /**
+   * Called once a complete frame is available in the buffer. The default implementation simply
+   * emits the frame as a retained slice.
+   *
+   * @param ctx the channel handler context
+   * @param in the buffer, positioned at the start of the frame
+   * @param length the length of the frame
+   * @param out the list to add decoded messages to
+   * @throws Exception if the frame could not be processed
+   */
+  protected void frameDecoded(ChannelHandlerContext ctx, ByteBuf in, int length, List<Object> out)
+      throws Exception {
+    out.add(in.readRetainedSlice(length));
+  }
+
+  /**
+   * Takes all bytes that have been received but not yet framed, so that another frame decoder can
+   * carry on where this one stopped.
+   *
+   * @return the buffered bytes
+   */
+  ByteBuf takeBuffered() {
+    ByteBuf buffered = internalBuffer();
+    return buffered.readRetainedSlice(buffered.readableBytes());
+  }
+
   /**
    * Reads a VarInt from the buffer of up to 21 bits in size.
    *
@@ -110,7 +110,7 @@ public class ChatQueue {
           future.awaitUninterruptibly();
         }
       }
-    }, smc.eventLoop());
+    }, smc.inlineEventLoop());
   }
 
   private interface Task {
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.packet.chat;
+
+import java.util.List;
+import net.kyori.adventure.nbt.BinaryTag;
+import net.kyori.adventure.nbt.ByteBinaryTag;
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+import net.kyori.adventure.nbt.ListBinaryTag;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.KeybindComponent;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.TranslationArgument;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Serializes components straight to the binary tags used by Minecraft 1.20.3 and newer, without
+ * building a JSON tree first. Only the kinds of components the proxy commonly sends (text,
+ * translatable and keybind components, with plain styles and click events) are handled; for
+ * anything else, callers must fall back to converting the JSON form.
+ */
+final class ComponentBinaryTagSerializer {
+
+  private ComponentBinaryTagSerializer() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Serializes the {@code component} to a binary tag.
+   *
+   * @param component the component to serialize
+   * @return the binary tag, or {@code null} if the component uses features this serializer does
+   *     not handle
+   */
+  static @Nullable BinaryTag serialize(Component component) {
+    CompoundBinaryTag.Builder builder = CompoundBinaryTag.builder();
+    if (component instanceof TextComponent text) {
+      builder.putString("text", text.content());
+    } else if (component instanceof TranslatableComponent translatable) {
+      builder.putString("translate", translatable.key());
+      if (translatable.fallback() != null) {
+        builder.putString("fallback", translatable.fallback());
+      }
+      List<TranslationArgument> arguments = translatable.arguments();
+      if (!arguments.isEmpty()) {
+        ListBinaryTag.Builder<CompoundBinaryTag> with = ListBinaryTag.builder();
+        for (TranslationArgument argument : arguments) {
+          if (!(argument.value() instanceof Component argumentComponent)) {
+            return null;
+          }
+          CompoundBinaryTag tag = (CompoundBinaryTag) serialize(argumentComponent);
+          if (tag == null) {
+            return null;
+          }
+          with.add(tag);
+        }
+        builder.put("with", with.build());
+      }
+    } else if (component instanceof KeybindComponent keybind) {
+      builder.putString("keybind", keybind.keybind());
+    } else {
+      return null;
+    }
+
+    if (!serializeStyle(component.style(), builder)) {
+      return null;
+    }
+
+    List<Component> children = component.children();
+    if (!children.isEmpty()) {
+      ListBinaryTag.Builder<CompoundBinaryTag> extra = ListBinaryTag.builder();
+      for (Component child : children) {
+        CompoundBinaryTag tag = (CompoundBinaryTag) serialize(child);
+        if (tag == null) {
+          return null;
+        }
+        extra.add(tag);
+      }
+      builder.put("extra", extra.build());
+    }
+    return builder.build();
+  }
+
+  private static boolean serializeStyle(Style style, CompoundBinaryTag.Builder builder) {
+    if (style.hoverEvent() != null) {
+      return false;
+    }
+
+    TextColor color = style.color();
+    if (color != null) {
+      builder.putString("color", color instanceof NamedTextColor named
+          ? NamedTextColor.NAMES.key(named) : color.asHexString());
+    }
+    for (TextDecoration decoration : TextDecoration.NAMES.values()) {
+      TextDecoration.State state = style.decoration(decoration);
+      if (state != TextDecoration.State.NOT_SET) {
+        builder.put(TextDecoration.NAMES.key(decoration),
+            state == TextDecoration.State.TRUE ? ByteBinaryTag.ONE : ByteBinaryTag.ZERO);
+      }
+    }
+    if (style.insertion() != null) {
+      builder.putString("insertion", style.insertion());
+    }
+    ClickEvent clickEvent = style.clickEvent();
+    if (clickEvent != null) {
+      builder.put("clickEvent", CompoundBinaryTag.builder()
+          .putString("action", ClickEvent.Action.NAMES.key(clickEvent.action()))
+          .putString("value", clickEvent.value())
+          .build());
+    }
+    if (style.font() != null) {
+      builder.putString("font", style.font().asString());
+    }
+    return true;
+  }
+}
@@ -17,6 +17,8 @@
 
 package com.velocitypowered.proxy.protocol.packet.chat;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -56,6 +58,22 @@ public class ComponentHolder {
   private static final Logger logger = LogManager.getLogger(ComponentHolder.class);
   public static final int DEFAULT_MAX_STRING_SIZE = 262143;
 
+  // The same components (MOTDs, tab list headers, boss bar titles, kick messages...) tend to be
+  // sent to many players, so their serialized forms are kept around rather than recomputed for
+  // every holder. Components are immutable, so they can safely be compared by equality. The caches
+  // are bounded by the size of the serialized forms, roughly in characters, as a single component
+  // can be hundreds of kilobytes large; components that large aren't cached at all.
+  private static final int MAX_CACHED_WEIGHT = 1 << 20;
+  private static final int MAX_CACHED_COMPONENT_WEIGHT = 1 << 14;
+  private static final Cache<JsonCacheKey, String> JSON_CACHE = Caffeine.newBuilder()
+      .maximumWeight(MAX_CACHED_WEIGHT)
+      .<JsonCacheKey, String>weigher((key, json) -> json.length())
+      .build();
+  private static final Cache<Component, BinaryTag> BINARY_TAG_CACHE = Caffeine.newBuilder()
+      .maximumWeight(MAX_CACHED_WEIGHT)
+      .<Component, BinaryTag>weigher((component, tag) -> weigh(tag))
+      .build();
+
   private final ProtocolVersion version;
   private @MonotonicNonNull Component component;
   private @MonotonicNonNull String json;
@@ -98,19 +116,63 @@ public class ComponentHolder {
 
   public String getJson() {
     if (json == null) {
-      json = ProtocolUtils.getJsonChatSerializer(version).serialize(getComponent());
+      GsonComponentSerializer serializer = ProtocolUtils.getJsonChatSerializer(version);
+      JsonCacheKey key = new JsonCacheKey(serializer, getComponent());
+      json = JSON_CACHE.getIfPresent(key);
+      if (json == null) {
+        json = serializer.serialize(key.component());
+        if (json.length() <= MAX_CACHED_COMPONENT_WEIGHT) {
+          JSON_CACHE.put(key, json);
+        }
+      }
     }
     return json;
   }
 
   public BinaryTag getBinaryTag() {
     if (binaryTag == null) {
-      // TODO: replace this with adventure-text-serializer-nbt
-      binaryTag = serialize(GsonComponentSerializer.gson().serializeToTree(getComponent()));
+      Component component = getComponent();
+      binaryTag = BINARY_TAG_CACHE.getIfPresent(component);
+      if (binaryTag == null) {
+        binaryTag = ComponentBinaryTagSerializer.serialize(component);
+        if (binaryTag == null) {
+          // Uses a feature the direct serializer doesn't handle, go through JSON instead.
+          binaryTag = serialize(GsonComponentSerializer.gson().serializeToTree(component));
+        }
+        if (weigh(binaryTag) <= MAX_CACHED_COMPONENT_WEIGHT) {
+          BINARY_TAG_CACHE.put(component, binaryTag);
+        }
+      }
     }
     return binaryTag;
   }
 
+  // Roughly the number of characters the tag would take up as JSON, to weigh it like JSON.
+  private static int weigh(BinaryTag tag) {
+    if (tag instanceof StringBinaryTag) {
+      return ((StringBinaryTag) tag).value().length();
+    } else if (tag instanceof CompoundBinaryTag) {
+      int weight = 1;
+      for (Map.Entry<String, ? extends BinaryTag> entry : (CompoundBinaryTag) tag) {
+        weight += entry.getKey().length() + weigh(entry.getValue());
+      }
+      return weight;
+    } else if (tag instanceof ListBinaryTag) {
+      int weight = 1;
+      for (BinaryTag element : (ListBinaryTag) tag) {
+        weight += weigh(element);
+      }
+      return weight;
+    } else if (tag instanceof ByteArrayBinaryTag) {
+      return ((ByteArrayBinaryTag) tag).size();
+    } else if (tag instanceof IntArrayBinaryTag) {
+      return ((IntArrayBinaryTag) tag).size();
+    } else if (tag instanceof LongArrayBinaryTag) {
+      return ((LongArrayBinaryTag) tag).size();
+    }
+    return 1;
+  }
+
   public static BinaryTag serialize(JsonElement json) {
     if (json instanceof JsonPrimitive) {
       JsonPrimitive jsonPrimitive = (JsonPrimitive) json;
@@ -297,4 +359,7 @@ public class ComponentHolder {
       ProtocolUtils.writeString(buf, getJson());
     }
   }
-}
\ No newline at end of file
+
+  private record JsonCacheKey(GsonComponentSerializer serializer, Component component) {
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.scheduler;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link TaskTimer} backed by a single-threaded {@link ScheduledExecutorService}, which keeps
+ * its tasks in a binary heap. Precise, but scheduling and cancelling costs {@code O(log n)}.
+ */
+final class ExecutorTaskTimer implements TaskTimer {
+
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setDaemon(true)
+          .setNameFormat("Velocity Task Scheduler Timer").build());
+
+  @Override
+  public Handle schedule(Runnable task, long delay, long repeat) {
+    final ScheduledFuture<?> future;
+    if (repeat == 0) {
+      future = executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+    } else {
+      future = executor.scheduleAtFixedRate(task, delay, repeat, TimeUnit.MILLISECONDS);
+    }
+    return () -> future.cancel(false);
+  }
+
+  @Override
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.scheduler;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link TaskTimer} backed by a {@link HashedWheelTimer}. Scheduling and cancelling a task are
+ * {@code O(1)} and all tasks due in the same tick are run together, at the cost of running tasks
+ * up to one tick late. Suited for proxies with many thousands of repeating tasks.
+ */
+final class HashedWheelTaskTimer implements TaskTimer {
+
+  private static final long TICK_MILLIS = 10;
+  private static final int TICKS_PER_WHEEL = 1024;
+
+  private final HashedWheelTimer timer = new HashedWheelTimer(
+      new ThreadFactoryBuilder().setDaemon(true)
+          .setNameFormat("Velocity Task Scheduler Timer").build(),
+      TICK_MILLIS, TimeUnit.MILLISECONDS, TICKS_PER_WHEEL, false);
+
+  @Override
+  public Handle schedule(Runnable task, long delay, long repeat) {
+    WheelTask wheelTask = new WheelTask(task, delay, repeat);
+    wheelTask.timeout = timer.newTimeout(wheelTask, delay, TimeUnit.MILLISECONDS);
+    return wheelTask;
+  }
+
+  @Override
+  public void shutdown() {
+    timer.stop();
+  }
+
+  private final class WheelTask implements TimerTask, Handle {
+
+    private final Runnable task;
+    private final long repeat;
+    private final long firstRun;
+    private long runs;
+    private volatile @Nullable Timeout timeout;
+    private volatile boolean cancelled;
+
+    private WheelTask(Runnable task, long delay, long repeat) {
+      this.task = task;
+      this.repeat = repeat;
+      this.firstRun = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+    }
+
+    @Override
+    public void run(Timeout timeout) {
+      if (cancelled) {
+        return;
+      }
+      task.run();
+      if (repeat != 0 && !cancelled) {
+        // Repeat at a fixed rate, so lateness of a single run does not add up over time.
+        runs++;
+        long nextRun = firstRun + TimeUnit.MILLISECONDS.toNanos(repeat * runs);
+        this.timeout = timer.newTimeout(this, Math.max(0, nextRun - System.nanoTime()),
+            TimeUnit.NANOSECONDS);
+      }
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      Timeout timeout = this.timeout;
+      if (timeout != null) {
+        timeout.cancel();
+      }
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.scheduler;
+
+/**
+ * Decides when delayed and repeating tasks of the {@link VelocityScheduler} are run. Tasks passed
+ * to a timer must return quickly, as they run on the timer's own thread.
+ */
+interface TaskTimer {
+
+  /**
+   * Schedules a task.
+   *
+   * @param task the task to run
+   * @param delay the delay before the first run, in milliseconds
+   * @param repeat the interval between the start of each run, in milliseconds, or {@code 0} to
+   *               only run the task once
+   * @return a handle to cancel the task with
+   */
+  Handle schedule(Runnable task, long delay, long repeat);
+
+  /**
+   * Stops the timer. Tasks that have not run yet will not run anymore.
+   */
+  void shutdown();
+
+  /**
+   * A task scheduled on a timer.
+   */
+  interface Handle {
+
+    /**
+     * Cancels the task. A run that has already started is not interrupted.
+     */
+    void cancel();
+  }
+}
@@ -21,26 +21,26 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.velocitypowered.api.plugin.PluginContainer;
 import com.velocitypowered.api.plugin.PluginManager;
+import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.scheduler.ScheduledTask;
 import com.velocitypowered.api.scheduler.Scheduler;
 import com.velocitypowered.api.scheduler.TaskStatus;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
 import com.velocitypowered.proxy.plugin.loader.VelocityPluginContainer;
+import io.netty.channel.EventLoop;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -52,17 +52,17 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 
 /**
- * The Velocity "scheduler", which is actually a thin wrapper around
- * {@link ScheduledExecutorService} and a dynamically-sized {@link ExecutorService}.
+ * The Velocity "scheduler", which is actually a thin wrapper around a {@link TaskTimer}, by default
+ * a {@link ScheduledExecutorService}, and a dynamically-sized {@link ExecutorService}.
  * Many plugins are accustomed to the Bukkit Scheduler model, although it is not relevant
  * in a proxy context.
  */
 public class VelocityScheduler implements Scheduler {
 
   private final PluginManager pluginManager;
-  private final ScheduledExecutorService timerExecutionService;
-  private final Multimap<Object, ScheduledTask> tasksByPlugin = Multimaps.synchronizedMultimap(
-      Multimaps.newSetMultimap(new IdentityHashMap<>(), HashSet::new));
+  private volatile TaskTimer timer = new ExecutorTaskTimer();
+  private final Map<PluginContainer, Set<ScheduledTask>> tasksByPlugin =
+      new ConcurrentHashMap<>();
 
   /**
    * Initalizes the scheduler.
@@ -71,9 +71,17 @@ public class VelocityScheduler implements Scheduler {
    */
   public VelocityScheduler(PluginManager pluginManager) {
     this.pluginManager = pluginManager;
-    this.timerExecutionService = Executors
-        .newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
-            .setNameFormat("Velocity Task Scheduler Timer").build());
+  }
+
+  /**
+   * Switches to a hashed wheel timer for delayed and repeating tasks, which schedules and cancels
+   * tasks in constant time but only runs them with a precision of 10 milliseconds. Must be called
+   * before any tasks are scheduled.
+   */
+  public void useHashedWheelTimer() {
+    TaskTimer previous = this.timer;
+    this.timer = new HashedWheelTaskTimer();
+    previous.shutdown();
   }
 
   @Override
@@ -97,11 +105,23 @@ public class VelocityScheduler implements Scheduler {
   @Override
   public @NonNull Collection<ScheduledTask> tasksByPlugin(@NonNull Object plugin) {
     checkNotNull(plugin, "plugin");
-    checkArgument(pluginManager.fromInstance(plugin).isPresent(), "plugin is not registered");
-    final Collection<ScheduledTask> tasks = tasksByPlugin.get(plugin);
-    synchronized (tasksByPlugin) {
-      return Set.copyOf(tasks);
+    final Optional<PluginContainer> container = pluginManager.fromInstance(plugin);
+    checkArgument(container.isPresent(), "plugin is not registered");
+    final Set<ScheduledTask> tasks = tasksByPlugin.get(container.get());
+    return tasks == null ? Set.of() : Set.copyOf(tasks);
+  }
+
+  /**
+   * Returns the number of tasks that have been scheduled and not yet finished or been cancelled.
+   *
+   * @return the number of scheduled tasks
+   */
+  public int getScheduledTaskCount() {
+    int count = 0;
+    for (Set<ScheduledTask> tasks : tasksByPlugin.values()) {
+      count += tasks.size();
     }
+    return count;
   }
 
   /**
@@ -111,14 +131,13 @@ public class VelocityScheduler implements Scheduler {
    * @throws InterruptedException if the current thread was interrupted
    */
   public boolean shutdown() throws InterruptedException {
-    Collection<ScheduledTask> terminating;
-    synchronized (tasksByPlugin) {
-      terminating = ImmutableList.copyOf(tasksByPlugin.values());
-    }
+    Collection<ScheduledTask> terminating = tasksByPlugin.values().stream()
+        .flatMap(Set::stream)
+        .collect(ImmutableList.toImmutableList());
     for (ScheduledTask task : terminating) {
       task.cancel();
     }
-    timerExecutionService.shutdown();
+    timer.shutdown();
     final List<PluginContainer> plugins = new ArrayList<>(this.pluginManager.getPlugins());
     final Iterator<PluginContainer> pluginIterator = plugins.iterator();
     while (pluginIterator.hasNext()) {
@@ -164,6 +183,7 @@ public class VelocityScheduler implements Scheduler {
     private final Consumer<ScheduledTask> consumer;
     private long delay; // ms
     private long repeat; // ms
+    private @Nullable ConnectedPlayer player;
 
     private TaskBuilderImpl(PluginContainer container, Consumer<ScheduledTask> consumer) {
       this.container = container;
@@ -201,10 +221,19 @@ public class VelocityScheduler implements Scheduler {
       return this;
     }
 
+    @Override
+    public TaskBuilder bindTo(Player player) {
+      checkNotNull(player, "player");
+      checkArgument(player instanceof ConnectedPlayer, "player is not a ConnectedPlayer");
+      this.player = (ConnectedPlayer) player;
+      return this;
+    }
+
     @Override
     public ScheduledTask schedule() {
-      VelocityTask task = new VelocityTask(container, runnable, consumer, delay, repeat);
-      tasksByPlugin.put(container.getInstance().get(), task);
+      VelocityTask task = new VelocityTask(container, runnable, consumer, delay, repeat, player);
+      tasksByPlugin.computeIfAbsent(container, ignored -> ConcurrentHashMap.newKeySet())
+          .add(task);
       task.schedule();
       return task;
     }
@@ -218,24 +247,46 @@ public class VelocityScheduler implements Scheduler {
     private final Consumer<ScheduledTask> consumer;
     private final long delay;
     private final long repeat;
-    private @Nullable ScheduledFuture<?> future;
+    private final @Nullable ConnectedPlayer player;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile TaskStatus status = TaskStatus.SCHEDULED;
+    private volatile @Nullable TaskTimer.Handle handle;
     private volatile @Nullable Thread currentTaskThread;
 
     private VelocityTask(PluginContainer container, Runnable runnable,
-        Consumer<ScheduledTask> consumer, long delay, long repeat) {
+        Consumer<ScheduledTask> consumer, long delay, long repeat,
+        @Nullable ConnectedPlayer player) {
       this.container = container;
       this.runnable = runnable;
       this.consumer = consumer;
       this.delay = delay;
       this.repeat = repeat;
+      this.player = player;
     }
 
     void schedule() {
+      if (player == null) {
+        this.handle = timer.schedule(this, delay, repeat);
+        return;
+      }
+
+      // Tasks bound to a player are timed and run by the player's event loop itself. The handle
+      // and binding have to be in place before that, as the task may run or be cancelled by a
+      // disconnecting player right away.
+      final CompletableFuture<ScheduledFuture<?>> scheduled = new CompletableFuture<>();
+      this.handle = () -> scheduled.thenAccept(future -> future.cancel(false));
+      player.bindTask(this);
+      if (status != TaskStatus.SCHEDULED) {
+        // The player has already disconnected.
+        return;
+      }
+
+      final EventLoop eventLoop = player.getConnection().eventLoop();
       if (repeat == 0) {
-        this.future = timerExecutionService.schedule(this, delay, TimeUnit.MILLISECONDS);
+        scheduled.complete(eventLoop.schedule(this, delay, TimeUnit.MILLISECONDS));
       } else {
-        this.future = timerExecutionService
-            .scheduleAtFixedRate(this, delay, repeat, TimeUnit.MILLISECONDS);
+        scheduled.complete(
+            eventLoop.scheduleAtFixedRate(this, delay, repeat, TimeUnit.MILLISECONDS));
       }
     }
 
@@ -247,28 +298,21 @@ public class VelocityScheduler implements Scheduler {
 
     @Override
     public TaskStatus status() {
-      if (future == null) {
-        return TaskStatus.SCHEDULED;
-      }
-
-      if (future.isCancelled()) {
-        return TaskStatus.CANCELLED;
-      }
-
-      if (future.isDone()) {
-        return TaskStatus.FINISHED;
-      }
-
-      return TaskStatus.SCHEDULED;
+      return status;
     }
 
     @Override
     public void cancel() {
-      if (future != null) {
-        future.cancel(false);
+      if (handle != null) {
+        handle.cancel();
+        if (status == TaskStatus.SCHEDULED) {
+          status = TaskStatus.CANCELLED;
+          completion.cancel(false);
+        }
 
+        // Never interrupt the event loop a bound task runs on.
         Thread cur = currentTaskThread;
-        if (cur != null) {
+        if (cur != null && player == null) {
           cur.interrupt();
         }
 
@@ -278,41 +322,57 @@ public class VelocityScheduler implements Scheduler {
 
     @Override
     public void run() {
-      container.getExecutorService().execute(() -> {
-        currentTaskThread = Thread.currentThread();
-        try {
-          if (runnable != null) {
-            runnable.run();
-          } else {
-            consumer.accept(this);
-          }
-        } catch (Throwable e) {
-          //noinspection ConstantConditions
-          if (e instanceof InterruptedException) {
-            Thread.currentThread().interrupt();
-          } else {
-            String friendlyPluginName = container.getDescription().getName()
-                .orElse(container.getDescription().getId());
-            Object unit = consumer == null ? runnable : consumer;
-            Log.logger.error("Exception in task {} by plugin {}", unit, friendlyPluginName,
-                e);
-          }
-        } finally {
-          if (repeat == 0) {
-            onFinish();
-          }
-          currentTaskThread = null;
+      if (repeat == 0) {
+        status = TaskStatus.FINISHED;
+        completion.complete(null);
+      }
+      if (player != null) {
+        runTask();
+      } else {
+        container.getExecutorService().execute(this::runTask);
+      }
+    }
+
+    private void runTask() {
+      currentTaskThread = Thread.currentThread();
+      try {
+        if (runnable != null) {
+          runnable.run();
+        } else {
+          consumer.accept(this);
+        }
+      } catch (Throwable e) {
+        //noinspection ConstantConditions
+        if (e instanceof InterruptedException) {
+          Thread.currentThread().interrupt();
+        } else {
+          String friendlyPluginName = container.getDescription().getName()
+              .orElse(container.getDescription().getId());
+          Object unit = consumer == null ? runnable : consumer;
+          Log.logger.error("Exception in task {} by plugin {}", unit, friendlyPluginName,
+              e);
+        }
+      } finally {
+        if (repeat == 0) {
+          onFinish();
         }
-      });
+        currentTaskThread = null;
+      }
     }
 
     private void onFinish() {
-      tasksByPlugin.remove(plugin(), this);
+      Set<ScheduledTask> tasks = tasksByPlugin.get(container);
+      if (tasks != null) {
+        tasks.remove(this);
+      }
+      if (player != null) {
+        player.unbindTask(this);
+      }
     }
 
     public void awaitCompletion() {
       try {
-        future.get();
+        completion.get();
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
       } catch (ExecutionException e) {
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server;
+
+import com.velocitypowered.proxy.VelocityServer;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.EventLoop;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Keeps a few connections to a backend server open ahead of time, so that a player switching to
+ * the server does not have to wait for a new connection to be established first. The connections
+ * have their pipeline set up, but nothing has been sent over them yet.
+ *
+ * <p>A player's connections to the proxy and to its backend server must share an event loop, so
+ * connections are pooled separately for every event loop players connect to the server from.
+ * Idle connections are closed once they are older than the configured idle timeout, as the
+ * backend server would otherwise time them out itself, and are replaced in the background.</p>
+ */
+final class BackendConnectionPool {
+
+  private final VelocityServer server;
+  private final VelocityRegisteredServer target;
+  private final Map<EventLoop, Slot> slots = new HashMap<>();
+  private long retryAfter;
+  private boolean closed;
+
+  BackendConnectionPool(VelocityServer server, VelocityRegisteredServer target) {
+    this.server = server;
+    this.target = target;
+    this.retryAfter = System.nanoTime();
+  }
+
+  /**
+   * Takes an idle connection on the specified event loop out of the pool and starts replacing it.
+   *
+   * @param loop the event loop the connection must run on
+   * @return an open connection to the server, or {@code null} if none is available
+   */
+  @Nullable Channel claim(EventLoop loop) {
+    Channel channel = null;
+    synchronized (this) {
+      Slot slot = slots.get(loop);
+      if (slot != null) {
+        do {
+          channel = slot.idle.pollFirst();
+        } while (channel != null && !channel.isActive());
+      }
+    }
+    refill(loop);
+    return channel;
+  }
+
+  /**
+   * Opens connections on the specified event loop until the pool holds as many as configured for
+   * it.
+   *
+   * @param loop the event loop to open connections on
+   */
+  void refill(EventLoop loop) {
+    Slot slot;
+    int missing;
+    synchronized (this) {
+      if (closed || server.isShutdown() || System.nanoTime() - retryAfter < 0) {
+        return;
+      }
+      slot = slots.computeIfAbsent(loop, ignored -> new Slot());
+      missing = server.getConfiguration().getBackendConnectionPoolSize() - slot.idle.size()
+          - slot.connecting;
+      if (missing <= 0) {
+        return;
+      }
+      slot.connecting += missing;
+    }
+
+    for (int i = 0; i < missing; i++) {
+      server.createBootstrap(loop, target.getServerInfo())
+          .handler(server.getBackendChannelInitializer())
+          .connect()
+          .addListener((ChannelFutureListener) future -> {
+            if (future.isSuccess()) {
+              added(loop, slot, future.channel());
+            } else {
+              failed(slot);
+            }
+          });
+    }
+  }
+
+  /**
+   * Closes all idle connections and stops opening new ones.
+   */
+  void close() {
+    List<Channel> channels = new ArrayList<>();
+    synchronized (this) {
+      closed = true;
+      for (Slot slot : slots.values()) {
+        channels.addAll(slot.idle);
+        slot.idle.clear();
+      }
+    }
+    for (Channel channel : channels) {
+      channel.close();
+    }
+  }
+
+  private void added(EventLoop loop, Slot slot, Channel channel) {
+    synchronized (this) {
+      slot.connecting--;
+      if (closed) {
+        channel.close();
+        return;
+      }
+      slot.idle.addLast(channel);
+    }
+
+    channel.eventLoop().schedule(() -> {
+      boolean evicted;
+      synchronized (this) {
+        evicted = slot.idle.remove(channel);
+      }
+      if (evicted) {
+        channel.close();
+        refill(loop);
+      }
+    }, server.getConfiguration().getBackendConnectionPoolIdleTimeout(), TimeUnit.MILLISECONDS);
+
+    channel.closeFuture().addListener(future -> {
+      synchronized (this) {
+        if (slot.idle.remove(channel)) {
+          // The server closed the connection on us, so it might not want pooled connections.
+          backOff();
+        }
+      }
+    });
+  }
+
+  private synchronized void failed(Slot slot) {
+    slot.connecting--;
+    backOff();
+  }
+
+  // Don't keep hammering a server that is down or closes our connections; the pool is refilled
+  // again by the first claim or eviction after the idle timeout has passed.
+  private void backOff() {
+    retryAfter = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(
+        server.getConfiguration().getBackendConnectionPoolIdleTimeout());
+  }
+
+  /**
+   * The connections pooled for a single event loop.
+   */
+  private static final class Slot {
+
+    private final Deque<Channel> idle = new ArrayDeque<>();
+    private int connecting;
+  }
+}
@@ -38,6 +38,7 @@ import com.velocitypowered.proxy.VelocityServer;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
 import com.velocitypowered.proxy.connection.backend.VelocityServerConnection;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.connection.client.PlayerBroadcast;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
@@ -60,6 +61,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.audience.ForwardingAudience;
+import net.kyori.adventure.identity.Identity;
+import net.kyori.adventure.text.Component;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.NotNull;
@@ -72,10 +75,18 @@ public class VelocityRegisteredServer implements RegisteredServer, ForwardingAud
   private final @Nullable VelocityServer server;
   private final ServerInfo serverInfo;
   private final Map<UUID, ConnectedPlayer> players = new ConcurrentHashMap<>();
+  private final @Nullable BackendConnectionPool connectionPool;
 
+  /**
+   * Creates a new registered server.
+   *
+   * @param server the proxy, or {@code null} if there is none
+   * @param serverInfo the server's information
+   */
   public VelocityRegisteredServer(@Nullable VelocityServer server, ServerInfo serverInfo) {
     this.server = server;
     this.serverInfo = Preconditions.checkNotNull(serverInfo, "serverInfo");
+    this.connectionPool = server == null ? null : new BackendConnectionPool(server, this);
   }
 
   @Override
@@ -111,7 +122,7 @@ public class VelocityRegisteredServer implements RegisteredServer, ForwardingAud
       throw new IllegalStateException("No Velocity proxy instance available");
     }
     CompletableFuture<ServerPing> pingFuture = new CompletableFuture<>();
-    server.createBootstrap(loop).handler(new ChannelInitializer<>() {
+    server.createBootstrap(loop, serverInfo).handler(new ChannelInitializer<>() {
       @Override
       protected void initChannel(Channel ch) {
         ch.pipeline().addLast(FRAME_DECODER, new MinecraftVarintFrameDecoder())
@@ -125,7 +136,7 @@ public class VelocityRegisteredServer implements RegisteredServer, ForwardingAud
 
         ch.pipeline().addLast(HANDLER, new MinecraftConnection(ch, server));
       }
-    }).connect(serverInfo.getAddress()).addListener((ChannelFutureListener) future -> {
+    }).connect().addListener((ChannelFutureListener) future -> {
       if (future.isSuccess()) {
         MinecraftConnection conn = future.channel().pipeline().get(MinecraftConnection.class);
         PingSessionHandler handler = new PingSessionHandler(pingFuture,
@@ -138,6 +149,27 @@ public class VelocityRegisteredServer implements RegisteredServer, ForwardingAud
     return pingFuture;
   }
 
+  /**
+   * Takes an already established connection to this server, if the proxy keeps any. The
+   * connection's pipeline has been set up by the backend channel initializer, but nothing has been
+   * sent over it yet.
+   *
+   * @param loop the event loop the connection must run on
+   * @return a connection to this server, or {@code null} if none is available
+   */
+  public @Nullable Channel claimPooledConnection(EventLoop loop) {
+    return connectionPool == null ? null : connectionPool.claim(loop);
+  }
+
+  /**
+   * Closes the connections this server keeps in reserve and stops opening new ones.
+   */
+  public void closeConnectionPool() {
+    if (connectionPool != null) {
+      connectionPool.close();
+    }
+  }
+
   public void addPlayer(ConnectedPlayer player) {
     players.put(player.getUniqueId(), player);
   }
@@ -201,4 +233,27 @@ public class VelocityRegisteredServer implements RegisteredServer, ForwardingAud
   public @NonNull Iterable<? extends Audience> audiences() {
     return this.getPlayersConnected();
   }
+
+  @Override
+  public void sendMessage(@NonNull Component message) {
+    this.sendMessage(Identity.nil(), message);
+  }
+
+  @Override
+  public void sendMessage(@NonNull Identity source, @NonNull Component message) {
+    if (server == null) {
+      ForwardingAudience.super.sendMessage(source, message);
+      return;
+    }
+    PlayerBroadcast.sendMessage(server, this.getPlayersConnected(), source, message);
+  }
+
+  @Override
+  public void sendActionBar(@NonNull Component message) {
+    if (server == null) {
+      ForwardingAudience.super.sendActionBar(message);
+      return;
+    }
+    PlayerBroadcast.sendActionBar(server, this.getPlayersConnected(), message);
+  }
 }
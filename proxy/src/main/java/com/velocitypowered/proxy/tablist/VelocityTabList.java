@@ -33,6 +33,7 @@ import com.velocitypowered.proxy.protocol.packet.chat.RemoteChatSession;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -52,6 +53,11 @@ public class VelocityTabList implements InternalTabList {
   private final ConnectedPlayer player;
   private final MinecraftConnection connection;
   private final Map<UUID, VelocityTabListEntry> entries;
+  private final boolean batchUpdates;
+  // The actions that still have to be sent for each entry, when batching updates. Guarded by
+  // itself.
+  private final Map<UUID, EnumSet<UpsertPlayerInfoPacket.Action>> pendingUpdates;
+  private boolean flushScheduled;
 
   /**
    * Constructs the instance.
@@ -59,9 +65,32 @@ public class VelocityTabList implements InternalTabList {
    * @param player player associated with this tab list
    */
   public VelocityTabList(ConnectedPlayer player) {
+    this(player, false);
+  }
+
+  /**
+   * Constructs the instance.
+   *
+   * @param player player associated with this tab list
+   * @param batchUpdates whether changes should be collected and sent together, instead of being
+   *     sent right away
+   */
+  public VelocityTabList(ConnectedPlayer player, boolean batchUpdates) {
     this.player = player;
     this.connection = player.getConnection();
     this.entries = Maps.newConcurrentMap();
+    this.batchUpdates = batchUpdates;
+    this.pendingUpdates = new LinkedHashMap<>();
+  }
+
+  /**
+   * Returns whether changes are collected and sent together. Only then are changes that leave a
+   * value as it was dropped, instead of being sent again.
+   *
+   * @return whether updates are batched
+   */
+  boolean isBatchingUpdates() {
+    return batchUpdates;
   }
 
   @Override
@@ -166,13 +195,23 @@ public class VelocityTabList implements InternalTabList {
       return entry;
     });
 
-    if (!actions.isEmpty()) {
+    if (actions.isEmpty()) {
+      return;
+    }
+    if (batchUpdates) {
+      queueUpdate(entry.getProfile().getId(), actions);
+    } else {
       this.connection.write(new UpsertPlayerInfoPacket(actions, List.of(playerInfoEntry)));
     }
   }
 
   @Override
   public Optional<TabListEntry> removeEntry(UUID uuid) {
+    if (batchUpdates) {
+      synchronized (pendingUpdates) {
+        pendingUpdates.remove(uuid);
+      }
+    }
     this.connection.write(new RemovePlayerInfoPacket(List.of(uuid)));
     return Optional.ofNullable(this.entries.remove(uuid));
   }
@@ -202,6 +241,11 @@ public class VelocityTabList implements InternalTabList {
   @Override
   public void clearAllSilent() {
     this.entries.clear();
+    if (batchUpdates) {
+      synchronized (pendingUpdates) {
+        pendingUpdates.clear();
+      }
+    }
   }
 
   @Override
@@ -228,7 +272,106 @@ public class VelocityTabList implements InternalTabList {
 
   protected void emitActionRaw(UpsertPlayerInfoPacket.Action action,
                                UpsertPlayerInfoPacket.Entry entry) {
-    this.connection.write(new UpsertPlayerInfoPacket(EnumSet.of(action), List.of(entry)));
+    if (batchUpdates) {
+      queueUpdate(entry.getProfileId(), EnumSet.of(action));
+    } else {
+      this.connection.write(new UpsertPlayerInfoPacket(EnumSet.of(action), List.of(entry)));
+    }
+  }
+
+  private void queueUpdate(UUID profileId, EnumSet<UpsertPlayerInfoPacket.Action> actions) {
+    synchronized (pendingUpdates) {
+      EnumSet<UpsertPlayerInfoPacket.Action> pending = pendingUpdates.get(profileId);
+      if (pending == null) {
+        pendingUpdates.put(profileId, EnumSet.copyOf(actions));
+      } else {
+        pending.addAll(actions);
+      }
+      if (flushScheduled) {
+        return;
+      }
+      flushScheduled = true;
+    }
+    this.connection.eventLoop().execute(this::flushPendingUpdates);
+  }
+
+  /**
+   * Sends the updates collected since the last flush. Entries whose only changes are updates to
+   * existing values are merged into a single packet carrying all of those values, while entries
+   * being added or having their chat session initialized are grouped by the exact actions they
+   * need. The values sent are the ones the entries have at the time of the flush.
+   */
+  void flushPendingUpdates() {
+    Map<UUID, EnumSet<UpsertPlayerInfoPacket.Action>> updates;
+    synchronized (pendingUpdates) {
+      updates = new LinkedHashMap<>(pendingUpdates);
+      pendingUpdates.clear();
+      flushScheduled = false;
+    }
+
+    EnumSet<UpsertPlayerInfoPacket.Action> mergedActions =
+        EnumSet.noneOf(UpsertPlayerInfoPacket.Action.class);
+    for (EnumSet<UpsertPlayerInfoPacket.Action> actions : updates.values()) {
+      if (isMergeable(actions)) {
+        mergedActions.addAll(actions);
+      }
+    }
+
+    Map<EnumSet<UpsertPlayerInfoPacket.Action>, List<UpsertPlayerInfoPacket.Entry>> packets =
+        new LinkedHashMap<>();
+    for (Map.Entry<UUID, EnumSet<UpsertPlayerInfoPacket.Action>> update : updates.entrySet()) {
+      VelocityTabListEntry entry = this.entries.get(update.getKey());
+      if (entry == null) {
+        continue;
+      }
+      EnumSet<UpsertPlayerInfoPacket.Action> actions = update.getValue();
+      if (isMergeable(actions)) {
+        EnumSet<UpsertPlayerInfoPacket.Action> ownActions = actions;
+        actions = mergedActions;
+        if (!ownActions.contains(UpsertPlayerInfoPacket.Action.UPDATE_GAME_MODE)
+            && (entry.getGameMode() == -1 || entry.getGameMode() == 256)) {
+          // Don't make up a game mode for an entry that has none.
+          actions = EnumSet.copyOf(mergedActions);
+          actions.remove(UpsertPlayerInfoPacket.Action.UPDATE_GAME_MODE);
+        }
+      }
+      packets.computeIfAbsent(actions, k -> new ArrayList<>())
+          .add(createCurrentEntry(entry, actions));
+    }
+
+    if (packets.isEmpty()) {
+      return;
+    }
+    packets.forEach((actions, packetEntries) ->
+        this.connection.delayedWrite(new UpsertPlayerInfoPacket(actions, packetEntries)));
+    this.connection.flush();
+  }
+
+  private static boolean isMergeable(EnumSet<UpsertPlayerInfoPacket.Action> actions) {
+    return !actions.contains(UpsertPlayerInfoPacket.Action.ADD_PLAYER)
+        && !actions.contains(UpsertPlayerInfoPacket.Action.INITIALIZE_CHAT);
+  }
+
+  private UpsertPlayerInfoPacket.Entry createCurrentEntry(VelocityTabListEntry entry,
+      EnumSet<UpsertPlayerInfoPacket.Action> actions) {
+    UpsertPlayerInfoPacket.Entry rawEntry = createRawEntry(entry);
+    if (actions.contains(UpsertPlayerInfoPacket.Action.ADD_PLAYER)) {
+      rawEntry.setProfile(entry.getProfile());
+    }
+    if (actions.contains(UpsertPlayerInfoPacket.Action.INITIALIZE_CHAT)) {
+      ChatSession session = entry.getChatSession();
+      rawEntry.setChatSession(session == null
+          ? null : new RemoteChatSession(session.getSessionId(), session.getIdentifiedKey()));
+    }
+    if (actions.contains(UpsertPlayerInfoPacket.Action.UPDATE_DISPLAY_NAME)) {
+      rawEntry.setDisplayName(entry.getDisplayNameComponent()
+          .map(name -> new ComponentHolder(player.getProtocolVersion(), name))
+          .orElse(null));
+    }
+    rawEntry.setLatency(entry.getLatency());
+    rawEntry.setGameMode(entry.getGameMode());
+    rawEntry.setListed(entry.isListed());
+    return rawEntry;
   }
 
   private void processUpsert(EnumSet<UpsertPlayerInfoPacket.Action> actions,
@@ -23,6 +23,7 @@ import com.velocitypowered.api.proxy.player.TabListEntry;
 import com.velocitypowered.api.util.GameProfile;
 import com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfoPacket;
 import com.velocitypowered.proxy.protocol.packet.chat.ComponentHolder;
+import java.util.Objects;
 import java.util.Optional;
 import net.kyori.adventure.text.Component;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -77,6 +78,9 @@ public class VelocityTabListEntry implements TabListEntry {
 
   @Override
   public TabListEntry setDisplayName(@Nullable Component displayName) {
+    if (this.tabList.isBatchingUpdates() && Objects.equals(this.displayName, displayName)) {
+      return this;
+    }
     this.displayName = displayName;
     UpsertPlayerInfoPacket.Entry upsertEntry = this.tabList.createRawEntry(this);
     upsertEntry.setDisplayName(
@@ -100,6 +104,9 @@ public class VelocityTabListEntry implements TabListEntry {
 
   @Override
   public TabListEntry setLatency(int latency) {
+    if (this.tabList.isBatchingUpdates() && this.latency == latency) {
+      return this;
+    }
     this.latency = latency;
     UpsertPlayerInfoPacket.Entry upsertEntry = this.tabList.createRawEntry(this);
     upsertEntry.setLatency(latency);
@@ -118,6 +125,9 @@ public class VelocityTabListEntry implements TabListEntry {
 
   @Override
   public TabListEntry setGameMode(int gameMode) {
+    if (this.tabList.isBatchingUpdates() && this.gameMode == gameMode) {
+      return this;
+    }
     this.gameMode = gameMode;
     UpsertPlayerInfoPacket.Entry upsertEntry = this.tabList.createRawEntry(this);
     upsertEntry.setGameMode(gameMode);
@@ -140,6 +150,9 @@ public class VelocityTabListEntry implements TabListEntry {
 
   @Override
   public VelocityTabListEntry setListed(boolean listed) {
+    if (this.tabList.isBatchingUpdates() && this.listed == listed) {
+      return this;
+    }
     this.listed = listed;
     UpsertPlayerInfoPacket.Entry upsertEntry = this.tabList.createRawEntry(this);
     upsertEntry.setListed(listed);
@@ -19,9 +19,11 @@ package com.velocitypowered.proxy.util;
 
 import com.google.common.base.Preconditions;
 import com.google.common.net.InetAddresses;
+import com.velocitypowered.api.proxy.server.ServerInfo;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.net.UnixDomainSocketAddress;
 
 /**
  * Utilities to parse addresses.
@@ -29,6 +31,7 @@ import java.net.URI;
 public final class AddressUtil {
 
   private static final int DEFAULT_MINECRAFT_PORT = 25565;
+  private static final String UNIX_SOCKET_PREFIX = "unix:";
 
   private AddressUtil() {
     throw new AssertionError();
@@ -74,4 +77,25 @@ public final class AddressUtil {
     int port = uri.getPort() == -1 ? DEFAULT_MINECRAFT_PORT : uri.getPort();
     return new InetSocketAddress(uri.getHost(), port);
   }
+
+  /**
+   * Creates the {@link ServerInfo} for a server with an address either of the form
+   * {@code 127.0.0.1:25565}, which is not resolved, or of the form {@code unix:/path/to/socket}
+   * for servers listening on a unix domain socket.
+   *
+   * @param name the name of the server
+   * @param address the address to parse
+   * @return the server info
+   */
+  public static ServerInfo createServerInfo(String name, String address) {
+    Preconditions.checkNotNull(address, "address");
+    if (address.startsWith(UNIX_SOCKET_PREFIX)) {
+      String path = address.substring(UNIX_SOCKET_PREFIX.length());
+      if (path.isEmpty()) {
+        throw new IllegalArgumentException("Missing unix domain socket path in " + address);
+      }
+      return new ServerInfo(name, UnixDomainSocketAddress.of(path));
+    }
+    return new ServerInfo(name, parseAddress(address));
+  }
 }
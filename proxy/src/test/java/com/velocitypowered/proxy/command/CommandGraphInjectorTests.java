@@ -22,6 +22,7 @@ import static com.mojang.brigadier.builder.LiteralArgumentBuilder.literal;
 import static com.mojang.brigadier.builder.RequiredArgumentBuilder.argument;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -32,6 +33,7 @@ import com.velocitypowered.api.command.BrigadierCommand;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.command.RawCommand;
 import com.velocitypowered.api.command.SimpleCommand;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -232,4 +234,79 @@ public class CommandGraphInjectorTests extends CommandTestSuite {
 
     assertEquals(registered, dest.getChild("foo"));
   }
+
+  @Test
+  void testCachedGraphFollowsRequirementsAndRegistrations() {
+    final var allowed = new AtomicBoolean(true);
+    final var registered = LiteralArgumentBuilder
+        .<CommandSource>literal("hello")
+        .then(literal("secret").requires(source -> allowed.get()))
+        .build();
+    manager.register(new BrigadierCommand(registered));
+
+    manager.getInjector().inject(dest, source);
+    assertEquals(registered, dest.getChild("hello"));
+
+    allowed.set(false);
+    final var filteredDest = new RootCommandNode<CommandSource>();
+    manager.getInjector().inject(filteredDest, source);
+    assertEquals(LiteralArgumentBuilder.<CommandSource>literal("hello").build(),
+        filteredDest.getChild("hello"));
+
+    manager.register(new BrigadierCommand(LiteralArgumentBuilder.literal("bye")));
+    final var updatedDest = new RootCommandNode<CommandSource>();
+    manager.getInjector().inject(updatedDest, source);
+    assertNotNull(updatedDest.getChild("bye"));
+  }
+
+  @Test
+  void testModifyingInjectedGraphDoesNotAffectOtherDestinations() {
+    final var registered = LiteralArgumentBuilder
+        .<CommandSource>literal("hello")
+        .then(literal("world"))
+        .build();
+    manager.register(new BrigadierCommand(registered));
+    manager.register(manager.metaBuilder("raw").build(), (RawCommand) invocation -> fail());
+
+    final var other = new RootCommandNode<CommandSource>();
+    manager.getInjector().inject(dest, source);
+    manager.getInjector().inject(other, source);
+
+    // Both destinations get the same graph from the cache, which one of them now modifies.
+    dest.getChild("hello").removeChildByName("world");
+    dest.getChild("hello").addChild(literal("there").build());
+    dest.getChild("raw").removeChildByName(VelocityCommands.ARGS_NODE_NAME);
+
+    assertEquals(registered, other.getChild("hello"));
+    assertEquals(manager.getRoot().getChild("raw"), other.getChild("raw"));
+
+    final var later = new RootCommandNode<CommandSource>();
+    manager.getInjector().inject(later, source);
+    assertEquals(registered, later.getChild("hello"));
+    assertEquals(manager.getRoot().getChild("raw"), later.getChild("raw"));
+  }
+
+  @Test
+  void testModifyingNestedInjectedNodesDoesNotAffectOtherDestinations() {
+    final var registered = LiteralArgumentBuilder
+        .<CommandSource>literal("hello")
+        .then(literal("world")
+            .then(literal("again")))
+        .build();
+    manager.register(new BrigadierCommand(registered));
+
+    final var other = new RootCommandNode<CommandSource>();
+    manager.getInjector().inject(dest, source);
+    manager.getInjector().inject(other, source);
+
+    final var world = dest.getChild("hello").getChild("world");
+    world.removeChildByName("again");
+    world.addChild(literal("there").build());
+
+    assertEquals(registered, other.getChild("hello"));
+
+    final var later = new RootCommandNode<CommandSource>();
+    manager.getInjector().inject(later, source);
+    assertEquals(registered, later.getChild("hello"));
+  }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.backend;
+
+import static com.velocitypowered.proxy.connection.backend.BackendLinkCompression.MODE_STREAM;
+import static com.velocitypowered.proxy.connection.backend.BackendLinkCompression.MODE_UNCOMPRESSED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.unix.DomainSocketAddress;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnknownHostException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BackendLinkCompression}.
+ */
+public class BackendLinkCompressionTest {
+
+  private static final SocketAddress LOOPBACK =
+      new InetSocketAddress(InetAddress.getLoopbackAddress(), 25565);
+  private static final SocketAddress DOMAIN_SOCKET = new DomainSocketAddress("/tmp/backend.sock");
+
+  @Test
+  void picksUncompressedForLoopbackBackends() {
+    assertEquals(MODE_UNCOMPRESSED, choose(LOOPBACK, MODE_UNCOMPRESSED, MODE_STREAM));
+    assertEquals(MODE_UNCOMPRESSED, choose(LOOPBACK, MODE_UNCOMPRESSED));
+  }
+
+  @Test
+  void picksUncompressedForDomainSocketBackends() {
+    assertEquals(MODE_UNCOMPRESSED, choose(DOMAIN_SOCKET, MODE_STREAM, MODE_UNCOMPRESSED));
+  }
+
+  @Test
+  void picksStreamForRemoteBackends() throws UnknownHostException {
+    SocketAddress remote = remoteAddress();
+    assertEquals(MODE_STREAM, choose(remote, MODE_UNCOMPRESSED, MODE_STREAM));
+    assertEquals(MODE_STREAM, choose(remote, MODE_STREAM));
+    assertEquals(MODE_STREAM, choose(InetSocketAddress.createUnresolved("backend", 25565),
+        MODE_UNCOMPRESSED, MODE_STREAM));
+  }
+
+  @Test
+  void picksStreamForLoopbackBackendsWithoutUncompressed() {
+    assertEquals(MODE_STREAM, choose(LOOPBACK, MODE_STREAM));
+  }
+
+  @Test
+  void declinesRemoteBackendsOnlySupportingUncompressed() throws UnknownHostException {
+    assertEquals(-1, choose(remoteAddress(), MODE_UNCOMPRESSED));
+  }
+
+  @Test
+  void declinesUnknownModes() {
+    assertEquals(-1, choose(LOOPBACK));
+    assertEquals(-1, choose(LOOPBACK, 2, 300));
+  }
+
+  @Test
+  void declinesMalformedRequests() {
+    // A negative mode count
+    ByteBuf request = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(request, -1);
+    assertEquals(-1, choose(LOOPBACK, request));
+
+    // Too many modes
+    request = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(request, 17);
+    for (int i = 0; i < 17; i++) {
+      ProtocolUtils.writeVarInt(request, MODE_STREAM);
+    }
+    assertEquals(-1, choose(LOOPBACK, request));
+
+    // Fewer modes than announced
+    request = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(request, 3);
+    ProtocolUtils.writeVarInt(request, MODE_STREAM);
+    assertEquals(-1, choose(LOOPBACK, request));
+
+    // A VarInt that is cut off
+    request = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(request, 1);
+    request.writeByte(0x80);
+    assertEquals(-1, choose(LOOPBACK, request));
+
+    // Nothing at all
+    assertEquals(-1, choose(LOOPBACK, Unpooled.buffer()));
+  }
+
+  private static SocketAddress remoteAddress() throws UnknownHostException {
+    return new InetSocketAddress(InetAddress.getByAddress(new byte[] {10, 0, 0, 1}), 25565);
+  }
+
+  private static int choose(SocketAddress address, int... modes) {
+    ByteBuf request = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(request, modes.length);
+    for (int mode : modes) {
+      ProtocolUtils.writeVarInt(request, mode);
+    }
+    return choose(address, request);
+  }
+
+  private static int choose(SocketAddress address, ByteBuf request) {
+    try {
+      return BackendLinkCompression.chooseMode(request, address);
+    } finally {
+      request.release();
+    }
+  }
+}
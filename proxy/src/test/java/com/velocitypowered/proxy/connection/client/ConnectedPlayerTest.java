@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.event.player.KickedFromServerEvent;
+import com.velocitypowered.api.event.player.KickedFromServerEvent.RedirectPlayer;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for choosing the next server a {@link ConnectedPlayer} connects to.
+ */
+public class ConnectedPlayerTest {
+
+  private static final List<String> ORDER = List.of("a", "b", "c", "d", "e");
+
+  private final EmbeddedChannel channel = new EmbeddedChannel();
+  private final Map<String, RegisteredServer> servers = new HashMap<>();
+  private final List<String> probed = new ArrayList<>();
+  private VelocityServer proxy;
+
+  @AfterEach
+  void tearDown() {
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void skipsToNextBatchWhenNoCandidateIsReachable() throws Exception {
+    ConnectedPlayer player = player(2, Set.of("d", "e"));
+
+    Optional<RegisteredServer> next = await(player.findNextServerToTry());
+    assertEquals(Optional.of(servers.get("d")), next);
+    assertEquals(List.of("a", "b", "c", "d"), probed);
+    // The player resumes from the chosen server rather than from the skipped ones.
+    assertEquals(Optional.of(servers.get("d")), player.getNextServerToTry());
+  }
+
+  @Test
+  void findsNothingWhenNoCandidateIsReachable() throws Exception {
+    ConnectedPlayer player = player(ORDER.size(), Set.of());
+
+    assertEquals(Optional.empty(), await(player.findNextServerToTry()));
+    assertEquals(ORDER, probed);
+    assertEquals(Optional.empty(), player.getNextServerToTry());
+  }
+
+  @Test
+  void triesServersInOrderWithoutProbing() throws Exception {
+    ConnectedPlayer player = player(1, Set.of());
+
+    assertEquals(Optional.of(servers.get("a")), await(player.findNextServerToTry()));
+    assertTrue(probed.isEmpty());
+  }
+
+  @Test
+  void handlesKickRightAwayWithoutProbing() {
+    ConnectedPlayer player = player(1, Set.of());
+    List<Object> fired = new ArrayList<>();
+    when(proxy.getEventManager().fire(any())).thenAnswer(invocation -> {
+      fired.add(invocation.getArgument(0));
+      return new CompletableFuture<>();
+    });
+
+    player.handleConnectionException(servers.get("a"), new ConnectException(), true);
+    // Fired before any task on the player's event loop got to run.
+    assertEquals(1, fired.size());
+    KickedFromServerEvent event = (KickedFromServerEvent) fired.get(0);
+    assertEquals(servers.get("a"), event.getServer());
+    assertEquals(servers.get("b"), ((RedirectPlayer) event.getResult()).getServer());
+  }
+
+  private ConnectedPlayer player(int parallelCandidates, Set<String> reachable) {
+    VelocityConfiguration configuration = mock(VelocityConfiguration.class);
+    when(configuration.getParallelConnectCandidates()).thenReturn(parallelCandidates);
+    when(configuration.getAttemptConnectionOrder()).thenReturn(ORDER);
+    when(configuration.getForcedHosts()).thenReturn(Map.of());
+    proxy = FakePlayers.server(configuration);
+
+    for (String name : ORDER) {
+      servers.put(name, new VelocityRegisteredServer(null,
+          new ServerInfo(name, InetSocketAddress.createUnresolved(name, 25565))));
+    }
+    when(proxy.getServer(anyString()))
+        .thenAnswer(invocation -> Optional.ofNullable(servers.get(invocation.getArgument(0))));
+    when(proxy.createBootstrap(any(), any(ServerInfo.class))).thenAnswer(invocation -> {
+      String name = invocation.<ServerInfo>getArgument(1).getName();
+      probed.add(name);
+      EmbeddedChannel attempt = new EmbeddedChannel();
+      Bootstrap bootstrap = mock(Bootstrap.class, RETURNS_SELF);
+      when(bootstrap.connect()).thenReturn(reachable.contains(name)
+          ? attempt.newSucceededFuture() : attempt.newFailedFuture(new ConnectException()));
+      return bootstrap;
+    });
+    return FakePlayers.create(proxy, channel, ProtocolVersion.MAXIMUM_VERSION, "Player");
+  }
+
+  private <T> T await(CompletableFuture<T> future) throws Exception {
+    // Every batch of candidates is handled on the player's event loop.
+    for (int i = 0; i < 10 && !future.isDone(); i++) {
+      channel.runPendingTasks();
+    }
+    return future.get(0, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.client;
+
+import static com.velocitypowered.proxy.network.Connections.MINECRAFT_DECODER;
+import static com.velocitypowered.proxy.network.Connections.MINECRAFT_ENCODER;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.connection.ConnectionTypes;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.event.VelocityEventManager;
+import com.velocitypowered.proxy.protocol.ProtocolUtils.Direction;
+import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Creates {@link ConnectedPlayer}s backed by a mocked proxy and connected through an
+ * {@link EmbeddedChannel}.
+ */
+public final class FakePlayers {
+
+  private FakePlayers() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Creates a mocked proxy using the specified configuration, which fires events without any
+   * listeners.
+   *
+   * @param configuration the configuration of the proxy
+   * @return the mocked proxy
+   */
+  public static VelocityServer server(VelocityConfiguration configuration) {
+    VelocityEventManager eventManager = mock(VelocityEventManager.class);
+    when(eventManager.fire(any()))
+        .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+    VelocityServer server = mock(VelocityServer.class);
+    when(server.getConfiguration()).thenReturn(configuration);
+    when(server.getEventManager()).thenReturn(eventManager);
+    return server;
+  }
+
+  /**
+   * Creates a player connected through the specified channel. Packets sent to the player are
+   * written to the channel as they are, without being encoded.
+   *
+   * @param server the proxy the player is connected to
+   * @param channel the channel of the player's connection
+   * @param version the protocol version of the player
+   * @param name the name of the player
+   * @return the player
+   */
+  public static ConnectedPlayer create(VelocityServer server, EmbeddedChannel channel,
+      ProtocolVersion version, String name) {
+    MinecraftConnection connection = new MinecraftConnection(channel, server);
+    // The codec only has to be around while the protocol version is set.
+    channel.pipeline().addLast(MINECRAFT_ENCODER, new MinecraftEncoder(Direction.CLIENTBOUND));
+    channel.pipeline().addLast(MINECRAFT_DECODER, new MinecraftDecoder(Direction.SERVERBOUND));
+    connection.setProtocolVersion(version);
+    channel.pipeline().remove(MINECRAFT_ENCODER);
+    channel.pipeline().remove(MINECRAFT_DECODER);
+    connection.setType(ConnectionTypes.VANILLA);
+    GameProfile profile = new GameProfile(
+        UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)), name, List.of());
+    return new ConnectedPlayer(server, profile, connection, null, null, false, null);
+  }
+
+  /**
+   * Tears the player down, as happens once its connection is closed.
+   *
+   * @param player the player to tear down
+   */
+  public static void teardown(ConnectedPlayer player) {
+    player.teardown();
+  }
+}
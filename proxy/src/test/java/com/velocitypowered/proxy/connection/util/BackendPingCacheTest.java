@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.server.PingOptions;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.api.proxy.server.ServerPing;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import io.netty.channel.EventLoop;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import net.kyori.adventure.text.Component;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BackendPingCache}.
+ */
+public class BackendPingCacheTest {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.MAXIMUM_VERSION;
+  private static final long TTL = 60_000;
+
+  @Test
+  void coalescesConcurrentPings() throws Exception {
+    StubServer server = new StubServer();
+    BackendPingCache cache = new BackendPingCache(TTL);
+
+    CompletableFuture<ServerPing> first = cache.ping(server, VERSION);
+    CompletableFuture<ServerPing> second = cache.ping(server, VERSION);
+    assertEquals(1, server.pings.size());
+    assertFalse(first.isDone());
+
+    ServerPing response = response();
+    server.pings.get(0).complete(response);
+    assertSame(response, first.get());
+    assertSame(response, second.get());
+
+    // Later pings reuse the response, unless they claim another protocol version.
+    assertSame(response, cache.ping(server, VERSION).get());
+    assertEquals(1, server.pings.size());
+    cache.ping(server, ProtocolVersion.MINIMUM_VERSION);
+    assertEquals(2, server.pings.size());
+    assertEquals(ProtocolVersion.MINIMUM_VERSION, server.versions.get(1));
+  }
+
+  @Test
+  void cachesFailures() {
+    StubServer server = new StubServer();
+    BackendPingCache cache = new BackendPingCache(TTL);
+
+    CompletableFuture<ServerPing> first = cache.ping(server, VERSION);
+    IOException failure = new IOException("Connection refused");
+    server.pings.get(0).completeExceptionally(failure);
+    ExecutionException thrown = assertThrows(ExecutionException.class, first::get);
+    assertSame(failure, thrown.getCause());
+
+    thrown = assertThrows(ExecutionException.class, cache.ping(server, VERSION)::get);
+    assertSame(failure, thrown.getCause());
+    assertEquals(1, server.pings.size());
+  }
+
+  @Test
+  void bypassesCacheWithoutTtl() {
+    StubServer server = new StubServer();
+    ServerListPingHandler handler = new ServerListPingHandler(proxy(0));
+
+    handler.pingBackend(server, null, VERSION);
+    handler.pingBackend(server, null, VERSION);
+    assertEquals(2, server.pings.size());
+
+    handler = new ServerListPingHandler(proxy(1000));
+    handler.pingBackend(server, null, VERSION);
+    handler.pingBackend(server, null, VERSION);
+    assertEquals(3, server.pings.size());
+  }
+
+  private static VelocityServer proxy(int cacheTtl) {
+    VelocityConfiguration configuration = mock(VelocityConfiguration.class);
+    when(configuration.getPingPassthroughCacheTtl()).thenReturn(cacheTtl);
+    VelocityServer proxy = mock(VelocityServer.class);
+    when(proxy.getConfiguration()).thenReturn(configuration);
+    return proxy;
+  }
+
+  private static ServerPing response() {
+    return new ServerPing(new ServerPing.Version(VERSION.getProtocol(), "Backend"), null,
+        Component.text("A backend server"), null);
+  }
+
+  /**
+   * A server that records every ping, leaving it to the test to answer them.
+   */
+  private static final class StubServer extends VelocityRegisteredServer {
+
+    private final List<CompletableFuture<ServerPing>> pings = new ArrayList<>();
+    private final List<ProtocolVersion> versions = new ArrayList<>();
+
+    StubServer() {
+      super(null, new ServerInfo("stub", InetSocketAddress.createUnresolved("localhost", 25565)));
+    }
+
+    @Override
+    public CompletableFuture<ServerPing> ping(@Nullable EventLoop loop, PingOptions pingOptions) {
+      CompletableFuture<ServerPing> ping = new CompletableFuture<>();
+      pings.add(ping);
+      versions.add(pingOptions.getProtocolVersion());
+      return ping;
+    }
+  }
+}
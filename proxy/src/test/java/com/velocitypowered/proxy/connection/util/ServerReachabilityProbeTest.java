@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.connection.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ServerReachabilityProbe}.
+ */
+public class ServerReachabilityProbeTest {
+
+  private final Map<String, ChannelPromise> attempts = new HashMap<>();
+  private final VelocityServer proxy = mock(VelocityServer.class);
+
+  ServerReachabilityProbeTest() {
+    when(proxy.createBootstrap(any(), any(ServerInfo.class))).thenAnswer(invocation -> {
+      ServerInfo target = invocation.getArgument(1);
+      ChannelPromise attempt = new EmbeddedChannel().newPromise();
+      attempts.put(target.getName(), attempt);
+      Bootstrap bootstrap = mock(Bootstrap.class, RETURNS_SELF);
+      when(bootstrap.connect()).thenReturn(attempt);
+      return bootstrap;
+    });
+  }
+
+  @Test
+  void choosesFirstReachableCandidateInOrder() throws Exception {
+    CompletableFuture<Integer> result = ServerReachabilityProbe.firstReachable(proxy,
+        servers("a", "b", "c"), null);
+
+    // Later candidates answering first must not win over earlier ones still being checked.
+    attempts.get("c").setSuccess();
+    attempts.get("b").setSuccess();
+    assertFalse(result.isDone());
+
+    attempts.get("a").setFailure(new ConnectException());
+    assertEquals(1, result.get());
+  }
+
+  @Test
+  void abandonsRemainingAttemptsOnceDecided() throws Exception {
+    CompletableFuture<Integer> result = ServerReachabilityProbe.firstReachable(proxy,
+        servers("a", "b"), null);
+
+    attempts.get("a").setSuccess();
+    assertEquals(0, result.get());
+    assertFalse(attempts.get("a").channel().isOpen());
+    assertFalse(attempts.get("b").channel().isOpen());
+  }
+
+  @Test
+  void reportsNoReachableCandidate() throws Exception {
+    CompletableFuture<Integer> result = ServerReachabilityProbe.firstReachable(proxy,
+        servers("a", "b"), null);
+
+    attempts.get("b").setFailure(new ConnectException());
+    assertFalse(result.isDone());
+    attempts.get("a").setFailure(new ConnectException());
+    assertEquals(-1, result.get());
+  }
+
+  private static List<RegisteredServer> servers(String... names) {
+    List<RegisteredServer> servers = new ArrayList<>();
+    for (String name : names) {
+      servers.add(new VelocityRegisteredServer(null,
+          new ServerInfo(name, InetSocketAddress.createUnresolved(name, 25565))));
+    }
+    return servers;
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.proxy.protocol.CompressedFrame;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ProxyMetrics} and {@link MetricsWriter}.
+ */
+public class ProxyMetricsTest {
+
+  @Test
+  void writesBackendConnectTimes() {
+    ProxyMetrics.recordBackendConnect("metrics-test", TimeUnit.MILLISECONDS.toNanos(250), true);
+    ProxyMetrics.recordBackendConnect("metrics-test", TimeUnit.MILLISECONDS.toNanos(250), true);
+    ProxyMetrics.recordBackendConnect("metrics-test", 0, false);
+
+    MetricsWriter out = new MetricsWriter();
+    ProxyMetrics.write(out);
+    String written = out.toString();
+    assertTrue(written.contains(
+        "velocity_backend_connect_seconds_count{server=\"metrics-test\"} 2\n"), written);
+    assertTrue(written.contains(
+        "velocity_backend_connect_seconds_sum{server=\"metrics-test\"} 0.5\n"), written);
+    assertTrue(written.contains(
+        "velocity_backend_connect_failures_total{server=\"metrics-test\"} 1\n"), written);
+  }
+
+  @Test
+  void writesTypeBeforeSamples() {
+    MetricsWriter out = new MetricsWriter();
+    out.type("velocity_test_total", "counter", "A test counter.");
+    out.sample("velocity_test_total", "", 3);
+    assertEquals("# HELP velocity_test_total A test counter.\n"
+        + "# TYPE velocity_test_total counter\n"
+        + "velocity_test_total 3\n", out.toString());
+  }
+
+  @Test
+  void escapesLabelValues() {
+    assertEquals("a\\\"b\\\\c\\nd", MetricsWriter.escape("a\"b\\c\nd"));
+  }
+
+  @Test
+  void labelsEventsByClassName() {
+    class LocalEvent {
+    }
+
+    ProxyMetrics.recordEventDispatch(LocalEvent.class, 0);
+    MetricsWriter out = new MetricsWriter();
+    ProxyMetrics.write(out);
+    String written = out.toString();
+    assertTrue(written.contains("velocity_event_dispatch_seconds_count{event=\""
+        + LocalEvent.class.getName() + "\"} 1\n"), written);
+  }
+
+  @Test
+  void countsFramesForwardedWithoutDecompression() {
+    String packets = "velocity_packets_received_total{state=\"handshake\","
+        + "direction=\"clientbound\"}";
+    String bytes = "velocity_packet_bytes_received_total{state=\"handshake\","
+        + "direction=\"clientbound\"}";
+    long packetsBefore = sample(packets);
+    long bytesBefore = sample(bytes);
+
+    EmbeddedChannel channel = new EmbeddedChannel(
+        new MinecraftDecoder(ProtocolUtils.Direction.CLIENTBOUND));
+    ProxyMetrics.setEnabled(true);
+    try {
+      channel.writeInbound(new CompressedFrame(1000, Unpooled.wrappedBuffer(new byte[16])));
+    } finally {
+      ProxyMetrics.setEnabled(false);
+    }
+    channel.finishAndReleaseAll();
+
+    assertEquals(packetsBefore + 1, sample(packets));
+    assertEquals(bytesBefore + 1000, sample(bytes));
+  }
+
+  private static long sample(String name) {
+    MetricsWriter out = new MetricsWriter();
+    ProxyMetrics.write(out);
+    for (String line : out.toString().split("\n")) {
+      if (line.startsWith(name + " ")) {
+        return Long.parseLong(line.substring(name.length() + 1));
+      }
+    }
+    throw new AssertionError(name + " was not written");
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.plugin.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link VirtualThreadExecutors}.
+ */
+public class VirtualThreadExecutorsTest {
+
+  @Test
+  void detectsVirtualThreadsOfTheRuntime() {
+    // Virtual threads were finalized in Java 21. Looking them up must never fail class
+    // initialization, whichever version the proxy runs on.
+    assertEquals(Runtime.version().feature() >= 21, VirtualThreadExecutors.isAvailable());
+  }
+
+  @Test
+  void staysDisabledUnlessRequested() {
+    assumeFalse(Boolean.getBoolean("velocity.virtual-thread-plugin-executors"));
+    assertFalse(VirtualThreadExecutors.isEnabled());
+  }
+
+  @Test
+  void fallsBackToRegularThreadPool() throws Exception {
+    assumeFalse(VirtualThreadExecutors.isEnabled());
+    VelocityPluginContainer container = new VelocityPluginContainer(
+        new VelocityPluginDescription("test", "Test", null, null, null, null, List.of(),
+            Path.of("test.jar")));
+    ExecutorService executor = container.getExecutorService();
+    try {
+      String threadName = executor.submit(() -> Thread.currentThread().getName())
+          .get(5, TimeUnit.SECONDS);
+      assertTrue(threadName.startsWith("Test - Task Executor #"), threadName);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void refusesToCreateExecutorWithoutVirtualThreads() {
+    assumeFalse(VirtualThreadExecutors.isAvailable());
+    assertThrows(IllegalStateException.class,
+        () -> VirtualThreadExecutors.create("test", "Test - Virtual Task Executor #"));
+  }
+
+  @Test
+  void createsVirtualThreadExecutor() throws Exception {
+    assumeTrue(VirtualThreadExecutors.isAvailable());
+    ExecutorService executor = VirtualThreadExecutors.create("test",
+        "Test - Virtual Task Executor #");
+    try {
+      Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+      assertTrue(thread.getName().startsWith("Test - Virtual Task Executor #"), thread.getName());
+      // Thread.isVirtual() does not exist in Java 17, which the tests are compiled against.
+      assertEquals(true, Thread.class.getMethod("isVirtual").invoke(thread));
+      assertTrue(VirtualThreadExecutors.getPinnedCarrierStats().containsKey("test"));
+    } finally {
+      executor.shutdownNow();
+      VirtualThreadExecutors.shutdown();
+    }
+  }
+}
@@ -31,13 +31,17 @@ import static com.velocitypowered.api.network.ProtocolVersion.MINECRAFT_1_16_2;
 import static com.velocitypowered.api.network.ProtocolVersion.MINECRAFT_1_8;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.proxy.protocol.packet.HandshakePacket;
 import com.velocitypowered.proxy.protocol.packet.StatusPingPacket;
+import com.velocitypowered.proxy.protocol.packet.StatusRequestPacket;
+import java.util.BitSet;
 import org.junit.jupiter.api.Test;
 
 class PacketRegistryTest {
@@ -156,4 +160,26 @@ class PacketRegistryTest {
     assertEquals(HandshakePacket.class,
         registry.getProtocolRegistry(MINECRAFT_1_14_2).createPacket(0x02).getClass());
   }
-}
\ No newline at end of file
+
+  @Test
+  void packetIdsOnlyIncludeDecodablePackets() {
+    StateRegistry.PacketRegistry registry = new StateRegistry.PacketRegistry(
+        ProtocolUtils.Direction.CLIENTBOUND, StateRegistry.PLAY);
+    registry.register(HandshakePacket.class, HandshakePacket::new,
+        new StateRegistry.PacketMapping(0x00, MINECRAFT_1_12, null, false));
+    registry.register(StatusPingPacket.class, StatusPingPacket::new,
+        new StateRegistry.PacketMapping(0x01, MINECRAFT_1_12, null, true));
+    registry.register(StatusRequestPacket.class, () -> StatusRequestPacket.INSTANCE,
+        new StateRegistry.PacketMapping(0x02, MINECRAFT_1_12, null, false));
+
+    BitSet all = registry.getProtocolRegistry(MINECRAFT_1_12).getPacketIds(type -> true);
+    assertTrue(all.get(0x00));
+    assertFalse(all.get(0x01), "Encode-only packets should never be selected");
+    assertTrue(all.get(0x02));
+
+    BitSet filtered = registry.getProtocolRegistry(MINECRAFT_1_12)
+        .getPacketIds(type -> type != HandshakePacket.class);
+    assertFalse(filtered.get(0x00));
+    assertTrue(filtered.get(0x02));
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2021-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.velocitypowered.natives.compression.JavaVelocityCompressor;
+import com.velocitypowered.natives.compression.VelocityCompressor;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AdaptiveCompressionTuner}.
+ */
+public class AdaptiveCompressionTunerTest {
+
+  private static final int PACKET_SIZE = 64 * 1024;
+  private static final int PACKETS_PER_WINDOW = 16;
+
+  @Test
+  void raisesLevelWhenCongested() {
+    AdaptiveCompressionTuner tuner = new AdaptiveCompressionTuner(JavaVelocityCompressor.FACTORY,
+        -1, 1, 9, 25);
+    VelocityCompressor compressor = fillWindow(tuner, PACKET_SIZE / 4, 0, true);
+    assertNotNull(compressor);
+    assertEquals(7, tuner.getLevel());
+    tuner.close();
+  }
+
+  @Test
+  void lowersLevelWhenTooExpensive() {
+    AdaptiveCompressionTuner tuner = new AdaptiveCompressionTuner(JavaVelocityCompressor.FACTORY,
+        6, 1, 9, 25);
+    assertNotNull(fillWindow(tuner, PACKET_SIZE / 4, PACKET_SIZE * 100L, false));
+    assertEquals(5, tuner.getLevel());
+    tuner.close();
+  }
+
+  @Test
+  void lowersLevelWhenDataDoesNotCompress() {
+    AdaptiveCompressionTuner tuner = new AdaptiveCompressionTuner(JavaVelocityCompressor.FACTORY,
+        6, 1, 9, 25);
+    assertNotNull(fillWindow(tuner, PACKET_SIZE, 0, true));
+    assertEquals(5, tuner.getLevel());
+    tuner.close();
+  }
+
+  @Test
+  void keepsLevelWhenCheapAndUncongested() {
+    AdaptiveCompressionTuner tuner = new AdaptiveCompressionTuner(JavaVelocityCompressor.FACTORY,
+        6, 1, 9, 25);
+    assertNull(fillWindow(tuner, PACKET_SIZE / 4, PACKET_SIZE, false));
+    assertEquals(6, tuner.getLevel());
+    tuner.close();
+  }
+
+  private static VelocityCompressor fillWindow(AdaptiveCompressionTuner tuner, int compressed,
+      long nanos, boolean congested) {
+    VelocityCompressor result = null;
+    for (int i = 0; i < PACKETS_PER_WINDOW; i++) {
+      VelocityCompressor tuned = tuner.record(PACKET_SIZE, compressed, nanos, congested);
+      if (tuned != null) {
+        result = tuned;
+      }
+    }
+    return result;
+  }
+}
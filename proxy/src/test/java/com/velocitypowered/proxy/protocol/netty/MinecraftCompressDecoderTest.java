@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.natives.compression.JavaVelocityCompressor;
+import com.velocitypowered.proxy.protocol.CompressedFrame;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.packet.KeepAlivePacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.zip.Deflater;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for forwarding compressed packets without inflating them, through
+ * {@link MinecraftCompressDecoder} and {@link MinecraftCompressorAndLengthEncoder}.
+ */
+public class MinecraftCompressDecoderTest {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.MAXIMUM_VERSION;
+  private static final int PASSTHROUGH_ID = StateRegistry.PLAY
+      .getProtocolRegistry(ProtocolUtils.Direction.CLIENTBOUND, VERSION)
+      .getPacketId(new KeepAlivePacket());
+
+  @Test
+  void forwardsCompressedFrameUntouchedWithMatchingThresholds() {
+    byte[] packet = packet(PASSTHROUGH_ID, 300);
+    byte[] compressed = deflate(packet);
+
+    CompressedFrame frame = decodeFrame(64, packet.length, compressed);
+    assertEquals(packet.length, frame.getUncompressedSize());
+    assertEquals(ByteBufUtil.hexDump(compressed), ByteBufUtil.hexDump(frame.content()));
+
+    ByteBuf expected = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(expected,
+        ProtocolUtils.varIntBytes(packet.length) + compressed.length);
+    ProtocolUtils.writeVarInt(expected, packet.length);
+    expected.writeBytes(compressed);
+    assertEquals(ByteBufUtil.hexDump(expected), ByteBufUtil.hexDump(encode(64, frame)));
+    expected.release();
+  }
+
+  @Test
+  void forwardsCompressedFrameWhenClientThresholdIsLower() {
+    byte[] packet = packet(PASSTHROUGH_ID, 300);
+    byte[] compressed = deflate(packet);
+
+    CompressedFrame frame = decodeFrame(256, packet.length, compressed);
+    ByteBuf encoded = encode(64, frame);
+    ProtocolUtils.readVarInt(encoded);
+    assertEquals(packet.length, ProtocolUtils.readVarInt(encoded));
+    assertEquals(ByteBufUtil.hexDump(compressed), ByteBufUtil.hexDump(encoded));
+    encoded.release();
+  }
+
+  @Test
+  void inflatesCompressedFrameWhenClientThresholdIsHigher() {
+    byte[] packet = packet(PASSTHROUGH_ID, 300);
+
+    CompressedFrame frame = decodeFrame(64, packet.length, deflate(packet));
+    ByteBuf encoded = encode(1024, frame);
+    assertEquals(packet.length + 1, ProtocolUtils.readVarInt(encoded));
+    assertEquals(0, ProtocolUtils.readVarInt(encoded));
+    assertEquals(ByteBufUtil.hexDump(packet), ByteBufUtil.hexDump(encoded));
+    encoded.release();
+  }
+
+  @Test
+  void peeksPacketIdOfPacketShorterThanVarIntLimit() {
+    // Only three bytes inflate, fewer than the five the decoder tries to peek at.
+    byte[] packet = packet(PASSTHROUGH_ID, 3 - ProtocolUtils.varIntBytes(PASSTHROUGH_ID));
+    assertEquals(3, packet.length);
+
+    CompressedFrame frame = decodeFrame(3, packet.length, deflate(packet));
+    assertEquals(3, frame.getUncompressedSize());
+    frame.release();
+  }
+
+  @Test
+  void inflatesPacketsThatAreNotPassedThrough() {
+    byte[] packet = packet(PASSTHROUGH_ID + 1, 300);
+
+    EmbeddedChannel channel = decoderChannel(64);
+    channel.writeInbound(compressedBody(packet.length, deflate(packet)));
+    Object decoded = channel.readInbound();
+    ByteBuf buf = assertInstanceOf(ByteBuf.class, decoded);
+    assertEquals(ByteBufUtil.hexDump(packet), ByteBufUtil.hexDump(buf));
+    buf.release();
+    assertFalse(channel.finishAndReleaseAll());
+  }
+
+  private static CompressedFrame decodeFrame(int threshold, int uncompressedSize,
+      byte[] compressed) {
+    EmbeddedChannel channel = decoderChannel(threshold);
+    channel.writeInbound(compressedBody(uncompressedSize, compressed));
+    CompressedFrame frame = assertInstanceOf(CompressedFrame.class, channel.readInbound());
+    assertFalse(channel.finishAndReleaseAll());
+    return frame;
+  }
+
+  private static EmbeddedChannel decoderChannel(int threshold) {
+    MinecraftDecoder packetDecoder = new MinecraftDecoder(ProtocolUtils.Direction.CLIENTBOUND);
+    packetDecoder.setState(StateRegistry.PLAY);
+    packetDecoder.setProtocolVersion(VERSION);
+    packetDecoder.setPassthroughFilter(type -> type == KeepAlivePacket.class);
+
+    MinecraftCompressDecoder decoder = new MinecraftCompressDecoder(threshold,
+        JavaVelocityCompressor.FACTORY.create(-1));
+    decoder.setPassthroughDecoder(packetDecoder);
+    return new EmbeddedChannel(decoder);
+  }
+
+  private static ByteBuf encode(int threshold, CompressedFrame frame) {
+    EmbeddedChannel channel = new EmbeddedChannel(new MinecraftCompressorAndLengthEncoder(
+        threshold, JavaVelocityCompressor.FACTORY.create(-1)));
+    channel.writeOutbound(frame);
+    ByteBuf encoded = Unpooled.buffer();
+    ByteBuf buf;
+    while ((buf = channel.readOutbound()) != null) {
+      encoded.writeBytes(buf);
+      buf.release();
+    }
+    channel.finishAndReleaseAll();
+    return encoded;
+  }
+
+  private static ByteBuf compressedBody(int uncompressedSize, byte[] compressed) {
+    ByteBuf body = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(body, uncompressedSize);
+    body.writeBytes(compressed);
+    return body;
+  }
+
+  private static byte[] packet(int packetId, int dataLength) {
+    ByteBuf buf = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(buf, packetId);
+    for (int i = 0; i < dataLength; i++) {
+      buf.writeByte(i % 7);
+    }
+    byte[] packet = ByteBufUtil.getBytes(buf);
+    buf.release();
+    return packet;
+  }
+
+  private static byte[] deflate(byte[] data) {
+    Deflater deflater = new Deflater();
+    deflater.setInput(data);
+    deflater.finish();
+    byte[] out = new byte[data.length + 64];
+    int length = deflater.deflate(out);
+    deflater.end();
+    byte[] compressed = new byte[length];
+    System.arraycopy(out, 0, compressed, 0, length);
+    return compressed;
+  }
+}
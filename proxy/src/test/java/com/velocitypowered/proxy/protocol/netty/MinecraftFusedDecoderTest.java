@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2021-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.velocitypowered.natives.compression.JavaVelocityCompressor;
+import com.velocitypowered.natives.compression.VelocityCompressor;
+import com.velocitypowered.natives.encryption.JavaVelocityCipher;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MinecraftFusedDecoder}.
+ */
+public class MinecraftFusedDecoderTest {
+
+  private static final int THRESHOLD = 64;
+  private static final SecretKey KEY = new SecretKeySpec(new byte[16], "AES");
+
+  @Test
+  void decodesCompressedAndUncompressedPackets() throws GeneralSecurityException {
+    List<ByteBuf> packets = packets(10);
+    EmbeddedChannel encoder = compressingEncoder();
+    ByteBuf encoded = encode(encoder, packets);
+
+    EmbeddedChannel decoder = new EmbeddedChannel(new MinecraftFusedDecoder(
+        new MinecraftCipherDecoder(JavaVelocityCipher.FACTORY.forDecryption(KEY)),
+        new MinecraftVarintFrameDecoder(),
+        new MinecraftCompressDecoder(THRESHOLD, JavaVelocityCompressor.FACTORY.create(-1))));
+    // Deliver the data in small pieces to make sure packets split across reads are handled.
+    while (encoded.isReadable()) {
+      decoder.writeInbound(encoded.readRetainedSlice(Math.min(encoded.readableBytes(), 37)));
+    }
+    encoded.release();
+
+    assertDecoded(decoder, packets);
+    encoder.finishAndReleaseAll();
+    decoder.finishAndReleaseAll();
+  }
+
+  @Test
+  void takesOverBufferedData() throws GeneralSecurityException {
+    // The first packet is sent before compression is enabled, the rest after.
+    List<ByteBuf> packets = packets(6);
+    EmbeddedChannel encoder = new EmbeddedChannel(
+        new MinecraftCipherEncoder(JavaVelocityCipher.FACTORY.forEncryption(KEY)),
+        MinecraftVarintLengthEncoder.INSTANCE);
+    ByteBuf encoded = encode(encoder, packets.subList(0, 1));
+    encoder.pipeline().replace(MinecraftVarintLengthEncoder.INSTANCE, "compression-encoder",
+        new MinecraftCompressorAndLengthEncoder(THRESHOLD,
+            JavaVelocityCompressor.FACTORY.create(-1)));
+    ByteBuf rest = encode(encoder, packets.subList(1, packets.size()));
+    encoded.writeBytes(rest);
+    rest.release();
+
+    EmbeddedChannel decoder = new EmbeddedChannel();
+    decoder.pipeline().addLast("cipher-decoder",
+        new MinecraftCipherDecoder(JavaVelocityCipher.FACTORY.forDecryption(KEY)));
+    decoder.pipeline().addLast("frame-decoder", new MinecraftVarintFrameDecoder());
+    decoder.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+      private boolean fused;
+
+      @Override
+      public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (!fused) {
+          // Mimic the proxy enabling compression while the first packet is handled.
+          fused = true;
+          MinecraftFusedDecoder fusedDecoder = new MinecraftFusedDecoder(
+              (MinecraftCipherDecoder) ctx.pipeline().get("cipher-decoder"),
+              (MinecraftVarintFrameDecoder) ctx.pipeline().get("frame-decoder"),
+              new MinecraftCompressDecoder(THRESHOLD, JavaVelocityCompressor.FACTORY.create(-1)));
+          ctx.pipeline().remove("cipher-decoder");
+          ctx.pipeline().replace("frame-decoder", "frame-decoder", fusedDecoder);
+        }
+        ctx.fireChannelRead(msg);
+      }
+    });
+
+    decoder.writeInbound(encoded);
+    decoder.runPendingTasks();
+
+    assertDecoded(decoder, packets);
+    encoder.finishAndReleaseAll();
+    decoder.finishAndReleaseAll();
+  }
+
+  @Test
+  void closesCompressorWhenCompressionIsDisabled() throws GeneralSecurityException {
+    VelocityCompressor compressor = JavaVelocityCompressor.FACTORY.create(-1);
+    MinecraftFusedDecoder fusedDecoder = new MinecraftFusedDecoder(
+        new MinecraftCipherDecoder(JavaVelocityCipher.FACTORY.forDecryption(KEY)),
+        new MinecraftVarintFrameDecoder(),
+        new MinecraftCompressDecoder(THRESHOLD, compressor));
+    EmbeddedChannel decoder = new EmbeddedChannel(fusedDecoder);
+
+    assertNotNull(fusedDecoder.disableCompression());
+    assertNull(fusedDecoder.getCompressDecoder());
+    ByteBuf in = Unpooled.buffer();
+    ByteBuf out = Unpooled.buffer();
+    assertThrows(IllegalStateException.class, () -> compressor.inflate(in, out, 1));
+    in.release();
+    out.release();
+    decoder.finishAndReleaseAll();
+  }
+
+  private static EmbeddedChannel compressingEncoder() throws GeneralSecurityException {
+    return new EmbeddedChannel(
+        new MinecraftCipherEncoder(JavaVelocityCipher.FACTORY.forEncryption(KEY)),
+        new MinecraftCompressorAndLengthEncoder(THRESHOLD,
+            JavaVelocityCompressor.FACTORY.create(-1)));
+  }
+
+  private static List<ByteBuf> packets(int count) {
+    Random random = new Random(1);
+    List<ByteBuf> packets = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      // Alternate between packets below and above the compression threshold.
+      byte[] data = new byte[i % 2 == 0 ? 10 : 1000];
+      for (int j = 0; j < data.length; j += 7) {
+        data[j] = (byte) random.nextInt();
+      }
+      packets.add(Unpooled.wrappedBuffer(data));
+    }
+    return packets;
+  }
+
+  private static ByteBuf encode(EmbeddedChannel encoder, List<ByteBuf> packets) {
+    for (ByteBuf packet : packets) {
+      encoder.writeOutbound(packet.retainedDuplicate());
+    }
+    ByteBuf encoded = Unpooled.buffer();
+    ByteBuf buf;
+    while ((buf = encoder.readOutbound()) != null) {
+      encoded.writeBytes(buf);
+      buf.release();
+    }
+    return encoded;
+  }
+
+  private static void assertDecoded(EmbeddedChannel decoder, List<ByteBuf> packets) {
+    for (ByteBuf packet : packets) {
+      ByteBuf decoded = decoder.readInbound();
+      assertEquals(ByteBufUtil.hexDump(packet), ByteBufUtil.hexDump(decoded));
+      decoded.release();
+    }
+    assertNull(decoder.readInbound());
+  }
+}
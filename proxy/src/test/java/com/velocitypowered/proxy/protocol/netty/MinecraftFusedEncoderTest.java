@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2021-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.velocitypowered.natives.compression.JavaVelocityCompressor;
+import com.velocitypowered.natives.encryption.JavaVelocityCipher;
+import com.velocitypowered.proxy.protocol.CompressedFrame;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MinecraftFusedEncoder}.
+ */
+public class MinecraftFusedEncoderTest {
+
+  private static final int THRESHOLD = 64;
+  private static final SecretKey KEY = new SecretKeySpec(new byte[16], "AES");
+
+  @Test
+  void coalescesPacketsUntilFlush() throws GeneralSecurityException {
+    List<ByteBuf> packets = packets(10);
+    EmbeddedChannel encoder = new EmbeddedChannel(new MinecraftFusedEncoder(THRESHOLD,
+        JavaVelocityCompressor.FACTORY.create(-1),
+        new MinecraftCipherEncoder(JavaVelocityCipher.FACTORY.forEncryption(KEY))));
+    for (ByteBuf packet : packets) {
+      encoder.write(packet.retainedDuplicate());
+    }
+    assertNull(encoder.readOutbound());
+    encoder.flush();
+
+    ByteBuf encoded = encoder.readOutbound();
+    assertNotNull(encoded);
+    assertNull(encoder.readOutbound());
+
+    EmbeddedChannel decoder = new EmbeddedChannel(
+        new MinecraftCipherDecoder(JavaVelocityCipher.FACTORY.forDecryption(KEY)),
+        new MinecraftVarintFrameDecoder(),
+        new MinecraftCompressDecoder(THRESHOLD, JavaVelocityCompressor.FACTORY.create(-1)));
+    decoder.writeInbound(encoded);
+    for (ByteBuf packet : packets) {
+      ByteBuf decoded = decoder.readInbound();
+      assertEquals(ByteBufUtil.hexDump(packet), ByteBufUtil.hexDump(decoded));
+      decoded.release();
+      packet.release();
+    }
+    assertNull(decoder.readInbound());
+
+    encoder.finishAndReleaseAll();
+    decoder.finishAndReleaseAll();
+  }
+
+  @Test
+  void passesOnLargeCompressedFramesWithoutCopying() throws Exception {
+    byte[] data = new byte[4096];
+    new Random(1).nextBytes(data);
+    ByteBuf compressed = Unpooled.buffer();
+    JavaVelocityCompressor.FACTORY.create(-1).deflate(Unpooled.wrappedBuffer(data), compressed);
+
+    EmbeddedChannel encoder = new EmbeddedChannel(new MinecraftFusedEncoder(THRESHOLD,
+        JavaVelocityCompressor.FACTORY.create(-1),
+        new MinecraftCipherEncoder(JavaVelocityCipher.FACTORY.forEncryption(KEY))));
+    encoder.writeAndFlush(new CompressedFrame(data.length, compressed));
+
+    // The header is written separately, followed by the untouched (but encrypted) frame.
+    ByteBuf header = encoder.readOutbound();
+    ByteBuf frame = encoder.readOutbound();
+    assertNotNull(frame);
+    assertNull(encoder.readOutbound());
+
+    EmbeddedChannel decoder = new EmbeddedChannel(
+        new MinecraftCipherDecoder(JavaVelocityCipher.FACTORY.forDecryption(KEY)),
+        new MinecraftVarintFrameDecoder(),
+        new MinecraftCompressDecoder(THRESHOLD, JavaVelocityCompressor.FACTORY.create(-1)));
+    decoder.writeInbound(Unpooled.wrappedBuffer(header, frame));
+    ByteBuf decoded = decoder.readInbound();
+    assertEquals(ByteBufUtil.hexDump(data), ByteBufUtil.hexDump(decoded));
+    decoded.release();
+
+    encoder.finishAndReleaseAll();
+    decoder.finishAndReleaseAll();
+  }
+
+  @Test
+  void doesNotEncryptSharedFramesInPlace() throws Exception {
+    byte[] data = new byte[4096];
+    new Random(1).nextBytes(data);
+    ByteBuf compressed = Unpooled.buffer();
+    JavaVelocityCompressor.FACTORY.create(-1).deflate(Unpooled.wrappedBuffer(data), compressed);
+    String compressedHex = ByteBufUtil.hexDump(compressed);
+
+    // Broadcasts hand the same compressed data to several connections as read-only views.
+    for (int i = 0; i < 2; i++) {
+      EmbeddedChannel encoder = new EmbeddedChannel(new MinecraftFusedEncoder(THRESHOLD,
+          JavaVelocityCompressor.FACTORY.create(-1),
+          new MinecraftCipherEncoder(JavaVelocityCipher.FACTORY.forEncryption(KEY))));
+      encoder.writeAndFlush(new CompressedFrame(data.length, compressed.retain().asReadOnly()));
+      ByteBuf encoded = encoder.readOutbound();
+      assertNull(encoder.readOutbound());
+
+      EmbeddedChannel decoder = new EmbeddedChannel(
+          new MinecraftCipherDecoder(JavaVelocityCipher.FACTORY.forDecryption(KEY)),
+          new MinecraftVarintFrameDecoder(),
+          new MinecraftCompressDecoder(THRESHOLD, JavaVelocityCompressor.FACTORY.create(-1)));
+      decoder.writeInbound(encoded);
+      ByteBuf decoded = decoder.readInbound();
+      assertEquals(ByteBufUtil.hexDump(data), ByteBufUtil.hexDump(decoded));
+      decoded.release();
+
+      encoder.finishAndReleaseAll();
+      decoder.finishAndReleaseAll();
+    }
+    assertEquals(compressedHex, ByteBufUtil.hexDump(compressed));
+    compressed.release();
+  }
+
+  private static List<ByteBuf> packets(int count) {
+    Random random = new Random(1);
+    List<ByteBuf> packets = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      // Alternate between packets below and above the compression threshold.
+      byte[] data = new byte[i % 2 == 0 ? 10 : 1000];
+      for (int j = 0; j < data.length; j += 7) {
+        data[j] = (byte) random.nextInt();
+      }
+      packets.add(Unpooled.wrappedBuffer(data));
+    }
+    return packets;
+  }
+}
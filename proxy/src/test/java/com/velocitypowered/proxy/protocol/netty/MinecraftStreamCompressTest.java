@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.Deflater;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MinecraftStreamCompressEncoder} and {@link MinecraftStreamCompressDecoder}.
+ */
+public class MinecraftStreamCompressTest {
+
+  @Test
+  void roundTripsFramesAcrossFlushes() {
+    List<byte[]> packets = packets(20);
+    EmbeddedChannel encoder = encoder();
+    ByteBuf compressed = Unpooled.buffer();
+    for (int i = 0; i < packets.size(); i++) {
+      encoder.write(Unpooled.wrappedBuffer(packets.get(i)));
+      // Flush every few packets, so that some flushes cover several frames.
+      if (i % 3 == 2 || i == packets.size() - 1) {
+        encoder.flush();
+        drain(encoder, compressed);
+      }
+    }
+
+    EmbeddedChannel decoder = decoder();
+    decoder.writeInbound(compressed);
+    assertDecoded(decoder, packets);
+    encoder.finishAndReleaseAll();
+    decoder.finishAndReleaseAll();
+  }
+
+  @Test
+  void roundTripsPartialInput() {
+    List<byte[]> packets = packets(20);
+    EmbeddedChannel encoder = encoder();
+    for (byte[] packet : packets) {
+      encoder.writeAndFlush(Unpooled.wrappedBuffer(packet));
+    }
+    ByteBuf compressed = Unpooled.buffer();
+    drain(encoder, compressed);
+
+    EmbeddedChannel decoder = decoder();
+    // Deliver the stream in small pieces, which split both frames and deflate blocks.
+    while (compressed.isReadable()) {
+      decoder.writeInbound(compressed.readRetainedSlice(Math.min(compressed.readableBytes(), 7)));
+    }
+    compressed.release();
+    assertDecoded(decoder, packets);
+    encoder.finishAndReleaseAll();
+    decoder.finishAndReleaseAll();
+  }
+
+  private static EmbeddedChannel encoder() {
+    // Outbound handlers run last to first, so frames get their length before being compressed.
+    return new EmbeddedChannel(new MinecraftStreamCompressEncoder(Deflater.DEFAULT_COMPRESSION),
+        MinecraftVarintLengthEncoder.INSTANCE);
+  }
+
+  private static EmbeddedChannel decoder() {
+    return new EmbeddedChannel(new MinecraftStreamCompressDecoder(
+        new MinecraftVarintFrameDecoder()), new MinecraftVarintFrameDecoder());
+  }
+
+  private static List<byte[]> packets(int count) {
+    Random random = new Random(42);
+    List<byte[]> packets = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      // Mix small and large packets, and compressible and incompressible ones.
+      byte[] packet = new byte[1 + random.nextInt(i % 4 == 0 ? 20000 : 200)];
+      if (i % 2 == 0) {
+        random.nextBytes(packet);
+      }
+      packet[0] = (byte) i;
+      packets.add(packet);
+    }
+    return packets;
+  }
+
+  private static void drain(EmbeddedChannel encoder, ByteBuf into) {
+    ByteBuf buf;
+    while ((buf = encoder.readOutbound()) != null) {
+      into.writeBytes(buf);
+      buf.release();
+    }
+  }
+
+  private static void assertDecoded(EmbeddedChannel decoder, List<byte[]> packets) {
+    for (byte[] packet : packets) {
+      ByteBuf frame = decoder.readInbound();
+      assertArrayEquals(packet, ByteBufUtil.getBytes(frame));
+      frame.release();
+    }
+    assertEquals(0, decoder.inboundMessages().size());
+  }
+}
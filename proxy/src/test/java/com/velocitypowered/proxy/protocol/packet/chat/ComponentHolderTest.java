@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.protocol.packet.chat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import net.kyori.adventure.nbt.BinaryTag;
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ComponentHolder}.
+ */
+public class ComponentHolderTest {
+
+  private static final Component MESSAGE = Component.text()
+      .content("Welcome to ")
+      .color(NamedTextColor.GOLD)
+      .insertion("velocity")
+      .clickEvent(ClickEvent.openUrl("https://velocitypowered.com"))
+      .append(Component.text("the network", TextColor.color(0x12abef)))
+      .append(Component.translatable("chat.type.text", Component.text("a"),
+          Component.keybind("key.jump")))
+      .build();
+
+  @Test
+  void binaryTagRoundTrips() {
+    BinaryTag tag = new ComponentHolder(ProtocolVersion.MINECRAFT_1_20_3, MESSAGE).getBinaryTag();
+    assertEquals(MESSAGE,
+        new ComponentHolder(ProtocolVersion.MINECRAFT_1_20_3, tag).getComponent());
+  }
+
+  @Test
+  void unsupportedComponentsFallBackToJson() {
+    Component hover = Component.text("hover", NamedTextColor.RED)
+        .hoverEvent(HoverEvent.showText(Component.text("tooltip")));
+    assertNull(ComponentBinaryTagSerializer.serialize(hover));
+
+    BinaryTag tag = new ComponentHolder(ProtocolVersion.MINECRAFT_1_20_3, hover).getBinaryTag();
+    assertTrue(((CompoundBinaryTag) tag).keySet().contains("hoverEvent"));
+  }
+
+  @Test
+  void serializedFormsAreShared() {
+    ProtocolVersion version = ProtocolVersion.MINECRAFT_1_19_4;
+    String json = new ComponentHolder(version, MESSAGE).getJson();
+    Component equal = MESSAGE.toBuilder().build();
+    assertSame(json, new ComponentHolder(version, equal).getJson());
+
+    BinaryTag tag = new ComponentHolder(ProtocolVersion.MINECRAFT_1_20_3, MESSAGE).getBinaryTag();
+    assertSame(tag, new ComponentHolder(ProtocolVersion.MINECRAFT_1_21, equal).getBinaryTag());
+  }
+
+  @Test
+  void largeComponentsAreNotCached() {
+    Component large = Component.text("x".repeat(100000));
+    ProtocolVersion version = ProtocolVersion.MINECRAFT_1_19_4;
+    String json = new ComponentHolder(version, large).getJson();
+    assertEquals(json, new ComponentHolder(version, large).getJson());
+    assertNotSame(json, new ComponentHolder(version, large).getJson());
+
+    BinaryTag tag = new ComponentHolder(ProtocolVersion.MINECRAFT_1_20_3, large).getBinaryTag();
+    assertEquals(tag, new ComponentHolder(ProtocolVersion.MINECRAFT_1_20_3, large).getBinaryTag());
+    assertNotSame(tag, new ComponentHolder(ProtocolVersion.MINECRAFT_1_20_3, large).getBinaryTag());
+  }
+}
@@ -18,11 +18,18 @@
 package com.velocitypowered.proxy.scheduler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 
+import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.api.scheduler.ScheduledTask;
 import com.velocitypowered.api.scheduler.TaskStatus;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.connection.client.FakePlayers;
 import com.velocitypowered.proxy.scheduler.VelocityScheduler.VelocityTask;
 import com.velocitypowered.proxy.testutil.FakePluginManager;
+import io.netty.channel.embedded.EmbeddedChannel;
 import java.time.Duration;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -68,6 +75,20 @@ class VelocitySchedulerTest {
     task.cancel();
   }
 
+  @Test
+  void hashedWheelRepeatTaskWorks() throws Exception {
+    VelocityScheduler scheduler = new VelocityScheduler(new FakePluginManager());
+    scheduler.useHashedWheelTimer();
+    CountDownLatch latch = new CountDownLatch(3);
+    ScheduledTask task = scheduler.buildTask(FakePluginManager.PLUGIN_A, latch::countDown)
+        .delay(100, TimeUnit.MILLISECONDS)
+        .repeat(100, TimeUnit.MILLISECONDS)
+        .schedule();
+    latch.await();
+    task.cancel();
+    assertEquals(TaskStatus.CANCELLED, task.status());
+  }
+
   @Test
   void obtainTasksFromPlugin() throws Exception {
     VelocityScheduler scheduler = new VelocityScheduler(new FakePluginManager());
@@ -133,4 +154,64 @@ class VelocitySchedulerTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  void boundTaskRunsOnPlayerEventLoop() {
+    VelocityScheduler scheduler = new VelocityScheduler(new FakePluginManager());
+    EmbeddedChannel channel = new EmbeddedChannel();
+    AtomicInteger runs = new AtomicInteger();
+    ScheduledTask task = scheduler.buildTask(FakePluginManager.PLUGIN_A, runs::incrementAndGet)
+        .bindTo(player(channel))
+        .schedule();
+
+    // Only the player's event loop runs the task.
+    assertEquals(0, runs.get());
+    channel.runPendingTasks();
+    assertEquals(1, runs.get());
+    assertEquals(TaskStatus.FINISHED, task.status());
+    assertTrue(scheduler.tasksByPlugin(FakePluginManager.PLUGIN_A).isEmpty());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void boundTaskIsCancelledOnTeardown() {
+    VelocityScheduler scheduler = new VelocityScheduler(new FakePluginManager());
+    EmbeddedChannel channel = new EmbeddedChannel();
+    ConnectedPlayer player = player(channel);
+    AtomicInteger runs = new AtomicInteger();
+    ScheduledTask task = scheduler.buildTask(FakePluginManager.PLUGIN_A, runs::incrementAndGet)
+        .repeat(1, TimeUnit.HOURS)
+        .bindTo(player)
+        .schedule();
+    channel.runPendingTasks();
+    assertEquals(1, runs.get());
+
+    FakePlayers.teardown(player);
+    assertEquals(TaskStatus.CANCELLED, task.status());
+    assertEquals(-1, channel.runScheduledPendingTasks());
+    assertTrue(scheduler.tasksByPlugin(FakePluginManager.PLUGIN_A).isEmpty());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void taskBoundToDisconnectedPlayerIsCancelled() {
+    VelocityScheduler scheduler = new VelocityScheduler(new FakePluginManager());
+    EmbeddedChannel channel = new EmbeddedChannel();
+    ConnectedPlayer player = player(channel);
+    channel.close();
+
+    AtomicInteger runs = new AtomicInteger();
+    ScheduledTask task = scheduler.buildTask(FakePluginManager.PLUGIN_A, runs::incrementAndGet)
+        .bindTo(player)
+        .schedule();
+    assertEquals(TaskStatus.CANCELLED, task.status());
+    assertEquals(-1, channel.runScheduledPendingTasks());
+    assertEquals(0, runs.get());
+    assertTrue(scheduler.tasksByPlugin(FakePluginManager.PLUGIN_A).isEmpty());
+  }
+
+  private static ConnectedPlayer player(EmbeddedChannel channel) {
+    return FakePlayers.create(FakePlayers.server(mock(VelocityConfiguration.class)), channel,
+        ProtocolVersion.MAXIMUM_VERSION, "Player");
+  }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultChannelPromise;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BackendConnectionPool}.
+ */
+public class BackendConnectionPoolTest {
+
+  private static final int POOL_SIZE = 2;
+
+  // The event loop of the player claiming connections.
+  private final EventLoop loop = new EmbeddedChannel().eventLoop();
+  // The channels the next connection attempts will succeed with, before new ones are created.
+  private final Deque<Channel> channels = new ArrayDeque<>();
+  private final List<ChannelPromise> attempts = new ArrayList<>();
+  private final List<EventLoop> loops = new ArrayList<>();
+
+  @Test
+  void claimsIdleConnectionAndReplacesIt() {
+    BackendConnectionPool pool = pool(15000);
+    assertNull(pool.claim(loop));
+    assertEquals(POOL_SIZE, attempts.size());
+    attempts.get(0).setSuccess();
+    attempts.get(1).setSuccess();
+
+    assertSame(attempts.get(0).channel(), pool.claim(loop));
+    assertEquals(POOL_SIZE + 1, attempts.size());
+    assertSame(attempts.get(1).channel(), pool.claim(loop));
+    assertEquals(POOL_SIZE + 2, attempts.size());
+    // The replacements are still connecting.
+    assertNull(pool.claim(loop));
+    assertEquals(POOL_SIZE + 2, attempts.size());
+  }
+
+  @Test
+  void poolsConnectionsPerEventLoop() {
+    EventLoop other = new EmbeddedChannel().eventLoop();
+    BackendConnectionPool pool = pool(15000);
+    pool.refill(loop);
+    attempts.get(0).setSuccess();
+    attempts.get(1).setSuccess();
+
+    // Connections on another event loop can't be handed to a player on this one.
+    assertNull(pool.claim(other));
+    assertEquals(List.of(loop, loop, other, other), loops);
+    attempts.get(2).setSuccess();
+    assertSame(attempts.get(2).channel(), pool.claim(other));
+    assertSame(attempts.get(0).channel(), pool.claim(loop));
+  }
+
+  @Test
+  void skipsInactiveConnections() {
+    // A connection that went inactive without its close having been noticed yet.
+    EmbeddedChannel timer = new EmbeddedChannel();
+    Channel inactive = mock(Channel.class);
+    when(inactive.eventLoop()).thenReturn(timer.eventLoop());
+    when(inactive.closeFuture()).thenReturn(timer.newPromise());
+    channels.add(inactive);
+
+    BackendConnectionPool pool = pool(15000);
+    pool.refill(loop);
+    attempts.get(0).setSuccess();
+    attempts.get(1).setSuccess();
+
+    assertSame(attempts.get(1).channel(), pool.claim(loop));
+    assertNull(pool.claim(loop));
+    timer.finishAndReleaseAll();
+  }
+
+  @Test
+  void evictsConnectionsAfterIdleTimeout() {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    channels.add(channel);
+    BackendConnectionPool pool = pool(15000);
+    pool.refill(loop);
+    attempts.get(0).setSuccess();
+
+    channel.advanceTimeBy(15000, TimeUnit.MILLISECONDS);
+    channel.runScheduledPendingTasks();
+    assertFalse(channel.isOpen());
+    // The evicted connection is replaced right away.
+    assertEquals(POOL_SIZE + 1, attempts.size());
+  }
+
+  @Test
+  void backsOffAfterFailedConnection() throws InterruptedException {
+    BackendConnectionPool pool = pool(50);
+    pool.refill(loop);
+    attempts.get(0).setFailure(new ConnectException());
+    attempts.get(1).setSuccess();
+
+    assertSame(attempts.get(1).channel(), pool.claim(loop));
+    assertEquals(POOL_SIZE, attempts.size());
+
+    Thread.sleep(100);
+    assertNull(pool.claim(loop));
+    assertEquals(POOL_SIZE + POOL_SIZE, attempts.size());
+  }
+
+  @Test
+  void backsOffAfterServerClosesConnection() {
+    BackendConnectionPool pool = pool(15000);
+    pool.refill(loop);
+    attempts.get(0).setSuccess();
+    attempts.get(1).setSuccess();
+
+    attempts.get(0).channel().close();
+    assertSame(attempts.get(1).channel(), pool.claim(loop));
+    assertEquals(POOL_SIZE, attempts.size());
+  }
+
+  @Test
+  void closesConnectionsAddedAfterClose() {
+    BackendConnectionPool pool = pool(15000);
+    pool.refill(loop);
+    attempts.get(0).setSuccess();
+
+    pool.close();
+    assertFalse(attempts.get(0).channel().isOpen());
+    attempts.get(1).setSuccess();
+    assertFalse(attempts.get(1).channel().isOpen());
+
+    assertNull(pool.claim(loop));
+    assertEquals(POOL_SIZE, attempts.size());
+  }
+
+  private BackendConnectionPool pool(int idleTimeout) {
+    VelocityConfiguration configuration = mock(VelocityConfiguration.class);
+    when(configuration.getBackendConnectionPoolSize()).thenReturn(POOL_SIZE);
+    when(configuration.getBackendConnectionPoolIdleTimeout()).thenReturn(idleTimeout);
+    VelocityServer proxy = mock(VelocityServer.class);
+    when(proxy.getConfiguration()).thenReturn(configuration);
+    when(proxy.createBootstrap(any(), any(ServerInfo.class))).thenAnswer(invocation -> {
+      Channel channel = channels.isEmpty() ? new EmbeddedChannel() : channels.poll();
+      ChannelPromise attempt = new DefaultChannelPromise(channel, channel.eventLoop());
+      attempts.add(attempt);
+      loops.add(invocation.getArgument(0));
+      Bootstrap bootstrap = mock(Bootstrap.class, RETURNS_SELF);
+      when(bootstrap.connect()).thenReturn(attempt);
+      return bootstrap;
+    });
+
+    VelocityRegisteredServer target = new VelocityRegisteredServer(null,
+        new ServerInfo("backend", InetSocketAddress.createUnresolved("localhost", 25565)));
+    return new BackendConnectionPool(proxy, target);
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.tablist;
+
+import static com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfoPacket.Action.ADD_PLAYER;
+import static com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfoPacket.Action.INITIALIZE_CHAT;
+import static com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfoPacket.Action.UPDATE_DISPLAY_NAME;
+import static com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfoPacket.Action.UPDATE_GAME_MODE;
+import static com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfoPacket.Action.UPDATE_LATENCY;
+import static com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfoPacket.Action.UPDATE_LISTED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.player.ChatSession;
+import com.velocitypowered.api.proxy.player.TabListEntry;
+import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.connection.client.FakePlayers;
+import com.velocitypowered.proxy.protocol.packet.RemovePlayerInfoPacket;
+import com.velocitypowered.proxy.protocol.packet.UpsertPlayerInfoPacket;
+import com.velocitypowered.proxy.protocol.packet.chat.RemoteChatSession;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for batched updates of {@link VelocityTabList}.
+ */
+public class VelocityTabListTest {
+
+  private final EmbeddedChannel channel = new EmbeddedChannel();
+
+  @AfterEach
+  void tearDown() {
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void mergesUpdatesIntoUnionOfActions() {
+    VelocityTabList tabList = tabList(true);
+    TabListEntry first = add(tabList, "first", 0, null);
+    TabListEntry second = add(tabList, "second", 0, null);
+    flushed();
+
+    first.setLatency(10);
+    second.setDisplayName(Component.text("Second"));
+    List<UpsertPlayerInfoPacket> packets = flushed();
+
+    assertEquals(1, packets.size());
+    UpsertPlayerInfoPacket packet = packets.get(0);
+    assertEquals(EnumSet.of(UPDATE_LATENCY, UPDATE_DISPLAY_NAME), packet.getActions());
+    assertEquals(2, packet.getEntries().size());
+    // Every entry carries its current values for all of the merged actions.
+    UpsertPlayerInfoPacket.Entry firstEntry = packet.getEntries().get(0);
+    assertEquals(first.getProfile().getId(), firstEntry.getProfileId());
+    assertEquals(10, firstEntry.getLatency());
+    assertNull(firstEntry.getDisplayName());
+    UpsertPlayerInfoPacket.Entry secondEntry = packet.getEntries().get(1);
+    assertEquals(second.getProfile().getId(), secondEntry.getProfileId());
+    assertEquals(0, secondEntry.getLatency());
+    assertNotNull(secondEntry.getDisplayName());
+  }
+
+  @Test
+  void leavesOutGameModeOfEntriesWithoutOne() {
+    VelocityTabList tabList = tabList(true);
+    TabListEntry survival = add(tabList, "survival", 0, null);
+    TabListEntry unknown = add(tabList, "unknown", -1, null);
+    TabListEntry spectator = add(tabList, "spectator", 256, null);
+    flushed();
+
+    survival.setGameMode(1);
+    unknown.setLatency(20);
+    spectator.setLatency(30);
+    List<UpsertPlayerInfoPacket> packets = flushed();
+
+    assertEquals(2, packets.size());
+    assertEquals(EnumSet.of(UPDATE_GAME_MODE, UPDATE_LATENCY), packets.get(0).getActions());
+    assertEquals(List.of(survival.getProfile().getId()), profileIds(packets.get(0)));
+    assertEquals(1, packets.get(0).getEntries().get(0).getGameMode());
+    assertEquals(EnumSet.of(UPDATE_LATENCY), packets.get(1).getActions());
+    assertEquals(List.of(unknown.getProfile().getId(), spectator.getProfile().getId()),
+        profileIds(packets.get(1)));
+  }
+
+  @Test
+  void groupsAddedEntriesByActions() {
+    VelocityTabList tabList = tabList(true);
+    TabListEntry existing = add(tabList, "existing", 0, null);
+    flushed();
+
+    existing.setLatency(40);
+    TabListEntry first = add(tabList, "first", 0, null);
+    TabListEntry second = add(tabList, "second", 0, null);
+    ChatSession session = new RemoteChatSession(UUID.randomUUID(), null);
+    TabListEntry chatting = add(tabList, "chatting", 0, session);
+    List<UpsertPlayerInfoPacket> packets = flushed();
+
+    assertEquals(3, packets.size());
+    assertEquals(EnumSet.of(UPDATE_LATENCY), packets.get(0).getActions());
+    assertEquals(List.of(existing.getProfile().getId()), profileIds(packets.get(0)));
+
+    assertEquals(EnumSet.of(ADD_PLAYER, UPDATE_LATENCY, UPDATE_LISTED, UPDATE_GAME_MODE),
+        packets.get(1).getActions());
+    assertEquals(List.of(first.getProfile().getId(), second.getProfile().getId()),
+        profileIds(packets.get(1)));
+    assertEquals(first.getProfile(), packets.get(1).getEntries().get(0).getProfile());
+
+    assertEquals(EnumSet.of(ADD_PLAYER, UPDATE_LATENCY, UPDATE_LISTED, UPDATE_GAME_MODE,
+        INITIALIZE_CHAT), packets.get(2).getActions());
+    assertEquals(List.of(chatting.getProfile().getId()), profileIds(packets.get(2)));
+    assertEquals(session.getSessionId(),
+        packets.get(2).getEntries().get(0).getChatSession().getSessionId());
+  }
+
+  @Test
+  void removingEntryDropsPendingUpdates() {
+    VelocityTabList tabList = tabList(true);
+    TabListEntry kept = add(tabList, "kept", 0, null);
+    TabListEntry removed = add(tabList, "removed", 0, null);
+    flushed();
+
+    kept.setLatency(50);
+    removed.setLatency(60);
+    tabList.removeEntry(removed.getProfile().getId());
+    RemovePlayerInfoPacket remove = assertInstanceOf(RemovePlayerInfoPacket.class,
+        channel.readOutbound());
+    assertEquals(List.of(removed.getProfile().getId()), List.copyOf(remove.getProfilesToRemove()));
+
+    List<UpsertPlayerInfoPacket> packets = flushed();
+    assertEquals(1, packets.size());
+    assertEquals(List.of(kept.getProfile().getId()), profileIds(packets.get(0)));
+  }
+
+  @Test
+  void sendsUnchangedValuesOnlyWithoutBatching() {
+    VelocityTabList batched = tabList(true);
+    TabListEntry entry = add(batched, "batched", 0, null);
+    flushed();
+    entry.setLatency(0);
+    entry.setListed(true);
+    assertEquals(List.of(), flushed());
+
+    VelocityTabList direct = tabList(false);
+    entry = add(direct, "direct", 0, null);
+    assertInstanceOf(UpsertPlayerInfoPacket.class, channel.readOutbound());
+    entry.setLatency(0);
+    UpsertPlayerInfoPacket packet = assertInstanceOf(UpsertPlayerInfoPacket.class,
+        channel.readOutbound());
+    assertEquals(EnumSet.of(UPDATE_LATENCY), packet.getActions());
+  }
+
+  private VelocityTabList tabList(boolean batchUpdates) {
+    return new VelocityTabList(FakePlayers.create(
+        FakePlayers.server(mock(VelocityConfiguration.class)), channel,
+        ProtocolVersion.MAXIMUM_VERSION, "Viewer"), batchUpdates);
+  }
+
+  private static TabListEntry add(VelocityTabList tabList, String name, int gameMode,
+      ChatSession session) {
+    GameProfile profile = new GameProfile(UUID.randomUUID(), name, List.of());
+    TabListEntry entry = tabList.buildEntry(profile, null, 0, gameMode, session, true);
+    tabList.addEntry(entry);
+    return entry;
+  }
+
+  private List<UpsertPlayerInfoPacket> flushed() {
+    channel.runPendingTasks();
+    List<UpsertPlayerInfoPacket> packets = new ArrayList<>();
+    Object msg;
+    while ((msg = channel.readOutbound()) != null) {
+      packets.add(assertInstanceOf(UpsertPlayerInfoPacket.class, msg));
+    }
+    return packets;
+  }
+
+  private static List<UUID> profileIds(UpsertPlayerInfoPacket packet) {
+    return packet.getEntries().stream().map(UpsertPlayerInfoPacket.Entry::getProfileId).toList();
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2018-2023 Velocity Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.velocitypowered.proxy.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AddressUtil}.
+ */
+public class AddressUtilTest {
+
+  @Test
+  void createsTcpServerInfo() {
+    ServerInfo info = AddressUtil.createServerInfo("lobby", "127.0.0.1:30066");
+    InetSocketAddress expected = new InetSocketAddress("127.0.0.1", 30066);
+    assertEquals(expected, info.getAddress());
+    assertEquals(expected, info.getSocketAddress());
+  }
+
+  @Test
+  void createsUnixSocketServerInfo() {
+    ServerInfo info = AddressUtil.createServerInfo("lobby", "unix:/run/minecraft/lobby.sock");
+    assertEquals(UnixDomainSocketAddress.of("/run/minecraft/lobby.sock"), info.getSocketAddress());
+    assertEquals(new ServerInfo("lobby", UnixDomainSocketAddress.of("/run/minecraft/lobby.sock")),
+        info);
+  }
+
+  @Test
+  void rejectsEmptyUnixSocketPath() {
+    assertThrows(IllegalArgumentException.class,
+        () -> AddressUtil.createServerInfo("lobby", "unix:"));
+  }
+}
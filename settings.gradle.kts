@@ -41,3 +41,8 @@ project(deprecatedConfigurateModule).projectDir = file("proxy/deprecated/configu
 val log4j2ProxyPlugin = ":velocity-proxy-log4j2-plugin"
 include(log4j2ProxyPlugin)
 project(log4j2ProxyPlugin).projectDir = file("proxy/log4j2-plugin")
+
+// JMH benchmarks
+val proxyJmh = ":velocity-proxy-jmh"
+include(proxyJmh)
+project(proxyJmh).projectDir = file("proxy/jmh")